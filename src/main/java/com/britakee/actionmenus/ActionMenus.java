@@ -83,8 +83,10 @@ public class ActionMenus {
         this.actionExecutor = new ActionExecutor(actionRegistry, placeholderManager);
         this.menuRegistry = new MenuRegistry();
         this.menuManager = new MenuManager(menuRegistry, placeholderManager, conditionEvaluator, actionExecutor);
-        this.configManager = new ConfigManager(configDir, menuRegistry, actionRegistry, placeholderManager);
-        this.menuUpdateScheduler = new MenuUpdateScheduler(menuManager);
+        this.menuUpdateScheduler = new MenuUpdateScheduler(menuManager, placeholderManager.getMetricsSampler());
+        menuManager.setUpdateScheduler(menuUpdateScheduler);
+        this.configManager = new ConfigManager(configDir, menuRegistry, actionRegistry, placeholderManager,
+                menuUpdateScheduler, menuManager);
         
         // Register mod event listeners
         modEventBus.addListener(this::onCommonSetup);
@@ -92,6 +94,8 @@ public class ActionMenus {
         // Register game event listeners
         NeoForge.EVENT_BUS.register(this);
         NeoForge.EVENT_BUS.register(menuManager);
+        NeoForge.EVENT_BUS.register(placeholderManager);
+        NeoForge.EVENT_BUS.register(placeholderManager.getMetricsSampler());
         NeoForge.EVENT_BUS.register(menuUpdateScheduler);
         
         LOGGER.info("ActionMenus initialized!");
@@ -138,6 +142,9 @@ public class ActionMenus {
         // Close all open menus
         menuManager.closeAllMenus();
         
+        // The next server counts ticks from zero again
+        menuUpdateScheduler.reset();
+        
         // Clear server reference
         placeholderManager.setServer(null);
     }
@@ -181,6 +188,10 @@ public class ActionMenus {
         return menuManager;
     }
     
+    public MenuUpdateScheduler getMenuUpdateScheduler() {
+        return menuUpdateScheduler;
+    }
+    
     public PermissionManager getPermissionManager() {
         return permissionManager;
     }
@@ -41,6 +41,9 @@ public class ActionRegistry {
         register("close", value -> new CloseAction());
         register("refresh", "update", value -> new RefreshAction());
         register("back", value -> new BackAction());
+        register("page", value -> PageAction.parse(value));
+        register("next_page", "nextpage", value -> new PageAction(1, true));
+        register("previous_page", "prev_page", "prevpage", value -> new PageAction(-1, true));
         
         // Sound action
         register("sound", "playsound", value -> SoundAction.parse(value));
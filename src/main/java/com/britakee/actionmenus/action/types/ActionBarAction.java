@@ -4,6 +4,7 @@ import com.britakee.actionmenus.ActionMenus;
 import com.britakee.actionmenus.action.Action;
 import com.britakee.actionmenus.action.ActionContext;
 import com.britakee.actionmenus.placeholder.PlaceholderContext;
+import com.britakee.actionmenus.placeholder.PlaceholderTemplate;
 import com.britakee.actionmenus.util.TextUtil;
 import net.minecraft.network.protocol.game.ClientboundSetActionBarTextPacket;
 import net.minecraft.server.level.ServerPlayer;
@@ -14,9 +15,11 @@ import net.minecraft.server.level.ServerPlayer;
 public class ActionBarAction extends Action {
     
     private final String message;
+    private final PlaceholderTemplate messageTemplate;
     
     public ActionBarAction(String message) {
         this.message = message;
+        this.messageTemplate = PlaceholderTemplate.compile(this.message);
     }
     
     @Override
@@ -25,7 +28,7 @@ public class ActionBarAction extends Action {
         
         // Parse placeholders
         PlaceholderContext placeholderCtx = new PlaceholderContext(player, context.getSession(), context.getArguments());
-        String parsedMessage = ActionMenus.getInstance().getPlaceholderManager().parse(message, placeholderCtx);
+        String parsedMessage = ActionMenus.getInstance().getPlaceholderManager().parse(messageTemplate, placeholderCtx);
         
         // Send action bar packet
         player.connection.send(new ClientboundSetActionBarTextPacket(TextUtil.colorize(parsedMessage)));
@@ -4,6 +4,7 @@ import com.britakee.actionmenus.ActionMenus;
 import com.britakee.actionmenus.action.Action;
 import com.britakee.actionmenus.action.ActionContext;
 import com.britakee.actionmenus.placeholder.PlaceholderContext;
+import com.britakee.actionmenus.placeholder.PlaceholderTemplate;
 import com.britakee.actionmenus.util.TextUtil;
 import net.minecraft.server.level.ServerPlayer;
 
@@ -13,9 +14,11 @@ import net.minecraft.server.level.ServerPlayer;
 public class BroadcastAction extends Action {
     
     private final String message;
+    private final PlaceholderTemplate messageTemplate;
     
     public BroadcastAction(String message) {
         this.message = message;
+        this.messageTemplate = PlaceholderTemplate.compile(this.message);
     }
     
     @Override
@@ -26,7 +29,7 @@ public class BroadcastAction extends Action {
         
         // Parse placeholders
         PlaceholderContext placeholderCtx = new PlaceholderContext(player, context.getSession(), context.getArguments());
-        String parsedMessage = ActionMenus.getInstance().getPlaceholderManager().parse(message, placeholderCtx);
+        String parsedMessage = ActionMenus.getInstance().getPlaceholderManager().parse(messageTemplate, placeholderCtx);
         
         // Broadcast to all players
         player.getServer().getPlayerList().broadcastSystemMessage(TextUtil.colorize(parsedMessage), false);
@@ -4,6 +4,7 @@ import com.britakee.actionmenus.ActionMenus;
 import com.britakee.actionmenus.action.Action;
 import com.britakee.actionmenus.action.ActionContext;
 import com.britakee.actionmenus.placeholder.PlaceholderContext;
+import com.britakee.actionmenus.placeholder.PlaceholderTemplate;
 import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerPlayer;
@@ -15,11 +16,13 @@ import net.minecraft.server.level.ServerPlayer;
 public class CommandAction extends Action {
     
     private final String command;
+    private final PlaceholderTemplate commandTemplate;
     private final boolean asConsole;
     
     public CommandAction(String command, boolean asConsole) {
         this.command = command.startsWith("/") ? command.substring(1) : command;
         this.asConsole = asConsole;
+        this.commandTemplate = PlaceholderTemplate.compile(this.command);
     }
     
     @Override
@@ -31,7 +34,7 @@ public class CommandAction extends Action {
         
         // Parse placeholders
         PlaceholderContext placeholderCtx = new PlaceholderContext(player, context.getSession(), context.getArguments());
-        String parsedCommand = ActionMenus.getInstance().getPlaceholderManager().parse(command, placeholderCtx);
+        String parsedCommand = ActionMenus.getInstance().getPlaceholderManager().parse(commandTemplate, placeholderCtx);
         
         // Get command source
         CommandSourceStack source;
@@ -4,6 +4,7 @@ import com.britakee.actionmenus.ActionMenus;
 import com.britakee.actionmenus.action.Action;
 import com.britakee.actionmenus.action.ActionContext;
 import com.britakee.actionmenus.placeholder.PlaceholderContext;
+import com.britakee.actionmenus.placeholder.PlaceholderTemplate;
 import com.britakee.actionmenus.util.TextUtil;
 import net.minecraft.network.chat.Component;
 import net.minecraft.network.protocol.game.ClientboundSetActionBarTextPacket;
@@ -18,9 +19,11 @@ import net.minecraft.server.level.ServerPlayer;
 public class MessageAction extends Action {
     
     private final String message;
+    private final PlaceholderTemplate messageTemplate;
     
     public MessageAction(String message) {
         this.message = message;
+        this.messageTemplate = PlaceholderTemplate.compile(this.message);
     }
     
     @Override
@@ -29,7 +32,7 @@ public class MessageAction extends Action {
         
         // Parse placeholders
         PlaceholderContext placeholderCtx = new PlaceholderContext(player, context.getSession(), context.getArguments());
-        String parsedMessage = ActionMenus.getInstance().getPlaceholderManager().parse(message, placeholderCtx);
+        String parsedMessage = ActionMenus.getInstance().getPlaceholderManager().parse(messageTemplate, placeholderCtx);
         
         // Send message
         player.sendSystemMessage(TextUtil.colorize(parsedMessage));
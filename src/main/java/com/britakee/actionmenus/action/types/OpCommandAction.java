@@ -4,6 +4,7 @@ import com.britakee.actionmenus.ActionMenus;
 import com.britakee.actionmenus.action.Action;
 import com.britakee.actionmenus.action.ActionContext;
 import com.britakee.actionmenus.placeholder.PlaceholderContext;
+import com.britakee.actionmenus.placeholder.PlaceholderTemplate;
 import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerPlayer;
@@ -14,9 +15,11 @@ import net.minecraft.server.level.ServerPlayer;
 public class OpCommandAction extends Action {
     
     private final String command;
+    private final PlaceholderTemplate commandTemplate;
     
     public OpCommandAction(String command) {
         this.command = command.startsWith("/") ? command.substring(1) : command;
+        this.commandTemplate = PlaceholderTemplate.compile(this.command);
     }
     
     @Override
@@ -28,7 +31,7 @@ public class OpCommandAction extends Action {
         
         // Parse placeholders
         PlaceholderContext placeholderCtx = new PlaceholderContext(player, context.getSession(), context.getArguments());
-        String parsedCommand = ActionMenus.getInstance().getPlaceholderManager().parse(command, placeholderCtx);
+        String parsedCommand = ActionMenus.getInstance().getPlaceholderManager().parse(commandTemplate, placeholderCtx);
         
         // Create command source with elevated permissions
         CommandSourceStack source = player.createCommandSourceStack()
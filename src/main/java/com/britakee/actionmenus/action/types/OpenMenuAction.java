@@ -4,6 +4,7 @@ import com.britakee.actionmenus.ActionMenus;
 import com.britakee.actionmenus.action.Action;
 import com.britakee.actionmenus.action.ActionContext;
 import com.britakee.actionmenus.placeholder.PlaceholderContext;
+import com.britakee.actionmenus.placeholder.PlaceholderTemplate;
 import net.minecraft.server.level.ServerPlayer;
 
 /**
@@ -13,11 +14,18 @@ public class OpenMenuAction extends Action {
     
     private final String menuId;
     private final String[] arguments;
+    private final PlaceholderTemplate menuIdTemplate;
+    private final PlaceholderTemplate[] argumentTemplates;
     
     public OpenMenuAction(String value) {
         String[] parts = value.trim().split("\\s+", 2);
         this.menuId = parts[0];
         this.arguments = parts.length > 1 ? parts[1].split("\\s+") : new String[0];
+        this.menuIdTemplate = PlaceholderTemplate.compile(menuId);
+        this.argumentTemplates = new PlaceholderTemplate[arguments.length];
+        for (int i = 0; i < arguments.length; i++) {
+            argumentTemplates[i] = PlaceholderTemplate.compile(arguments[i]);
+        }
     }
     
     @Override
@@ -26,12 +34,12 @@ public class OpenMenuAction extends Action {
         
         // Parse placeholders in menu ID
         PlaceholderContext placeholderCtx = new PlaceholderContext(player, context.getSession(), context.getArguments());
-        String parsedMenuId = ActionMenus.getInstance().getPlaceholderManager().parse(menuId, placeholderCtx);
+        String parsedMenuId = ActionMenus.getInstance().getPlaceholderManager().parse(menuIdTemplate, placeholderCtx);
         
         // Parse arguments
-        String[] parsedArgs = new String[arguments.length];
-        for (int i = 0; i < arguments.length; i++) {
-            parsedArgs[i] = ActionMenus.getInstance().getPlaceholderManager().parse(arguments[i], placeholderCtx);
+        String[] parsedArgs = new String[argumentTemplates.length];
+        for (int i = 0; i < argumentTemplates.length; i++) {
+            parsedArgs[i] = ActionMenus.getInstance().getPlaceholderManager().parse(argumentTemplates[i], placeholderCtx);
         }
         
         // Open the menu
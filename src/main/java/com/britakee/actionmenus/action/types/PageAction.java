@@ -0,0 +1,61 @@
+package com.britakee.actionmenus.action.types;
+
+import com.britakee.actionmenus.ActionMenus;
+import com.britakee.actionmenus.action.Action;
+import com.britakee.actionmenus.action.ActionContext;
+import com.britakee.actionmenus.menu.MenuSession;
+
+/**
+ * Action that flips the page of a paged menu.
+ * Format: next, previous, or a page number counted from 1
+ */
+public class PageAction extends Action {
+    
+    private final int page;
+    private final boolean relative;
+    
+    /**
+     * @param page The page counted from 0, or the number of pages to move if relative
+     */
+    public PageAction(int page, boolean relative) {
+        this.page = page;
+        this.relative = relative;
+    }
+    
+    public static PageAction parse(String value) {
+        String trimmed = value.trim().toLowerCase();
+        return switch (trimmed) {
+            case "", "next", "+" -> new PageAction(1, true);
+            case "previous", "prev", "-" -> new PageAction(-1, true);
+            case "first" -> new PageAction(0, false);
+            case "last" -> new PageAction(Integer.MAX_VALUE, false);
+            default -> {
+                try {
+                    yield new PageAction(Integer.parseInt(trimmed) - 1, false);
+                } catch (NumberFormatException e) {
+                    ActionMenus.LOGGER.warn("Invalid page '{}', expected next, previous, first, last or a number; using next", value);
+                    yield new PageAction(1, true);
+                }
+            }
+        };
+    }
+    
+    @Override
+    public void execute(ActionContext context) {
+        MenuSession session = context.getSession();
+        if (session == null) return;
+        
+        int target = relative ? session.getCurrentPage() + page : page;
+        ActionMenus.getInstance().getMenuManager().setPage(context.getPlayer(), target);
+    }
+    
+    @Override
+    public String getType() {
+        return "page";
+    }
+    
+    @Override
+    public String toString() {
+        return "page{" + (relative ? (page > 0 ? "+" : "") + page : String.valueOf(page + 1)) + "}";
+    }
+}
@@ -5,6 +5,7 @@ import com.britakee.actionmenus.action.Action;
 import com.britakee.actionmenus.action.ActionContext;
 import com.britakee.actionmenus.menu.MenuSession;
 import com.britakee.actionmenus.placeholder.PlaceholderContext;
+import com.britakee.actionmenus.placeholder.PlaceholderTemplate;
 
 /**
  * Action that sets session data.
@@ -14,10 +15,12 @@ public class SetDataAction extends Action {
     
     private final String key;
     private final String value;
+    private final PlaceholderTemplate valueTemplate;
     
     public SetDataAction(String key, String value) {
         this.key = key;
         this.value = value;
+        this.valueTemplate = PlaceholderTemplate.compile(this.value);
     }
     
     public static SetDataAction parse(String input) {
@@ -45,9 +48,12 @@ public class SetDataAction extends Action {
         // Parse placeholders in value
         PlaceholderContext placeholderCtx = new PlaceholderContext(
                 context.getPlayer(), session, context.getArguments());
-        String parsedValue = ActionMenus.getInstance().getPlaceholderManager().parse(value, placeholderCtx);
+        String parsedValue = ActionMenus.getInstance().getPlaceholderManager().parse(valueTemplate, placeholderCtx);
         
         session.setData(key, parsedValue);
+        
+        // Refresh slots showing session data
+        ActionMenus.getInstance().getPlaceholderManager().markChanged(context.getPlayer().getUUID(), "session", null);
     }
     
     @Override
@@ -18,6 +18,9 @@ public class TakeItemAction extends Action {
     private final String itemId;
     private final int amount;
     
+    // Resolved on first use, the registry does not change while the server runs
+    private volatile Item item;
+    
     public TakeItemAction(String itemId, int amount) {
         this.itemId = itemId;
         this.amount = amount;
@@ -44,12 +47,7 @@ public class TakeItemAction extends Action {
     public void execute(ActionContext context) {
         ServerPlayer player = context.getPlayer();
         
-        ResourceLocation itemLocation = ResourceLocation.tryParse(itemId);
-        if (itemLocation == null) {
-            itemLocation = ResourceLocation.withDefaultNamespace(itemId);
-        }
-        
-        Item item = BuiltInRegistries.ITEM.get(itemLocation);
+        Item item = getItem();
         if (item == Items.AIR) {
             return;
         }
@@ -71,6 +69,19 @@ public class TakeItemAction extends Action {
         }
     }
     
+    private Item getItem() {
+        Item resolved = item;
+        if (resolved == null) {
+            ResourceLocation itemLocation = ResourceLocation.tryParse(itemId);
+            if (itemLocation == null) {
+                itemLocation = ResourceLocation.withDefaultNamespace(itemId);
+            }
+            resolved = BuiltInRegistries.ITEM.get(itemLocation);
+            item = resolved;
+        }
+        return resolved;
+    }
+    
     @Override
     public String getType() {
         return "take";
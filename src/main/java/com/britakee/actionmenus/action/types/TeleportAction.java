@@ -4,6 +4,7 @@ import com.britakee.actionmenus.ActionMenus;
 import com.britakee.actionmenus.action.Action;
 import com.britakee.actionmenus.action.ActionContext;
 import com.britakee.actionmenus.placeholder.PlaceholderContext;
+import com.britakee.actionmenus.placeholder.PlaceholderTemplate;
 import net.minecraft.server.level.ServerPlayer;
 
 /**
@@ -17,11 +18,19 @@ public class TeleportAction extends Action {
     private final String z;
     private final String world;
     
+    // Coordinates compiled once at load
+    private final PlaceholderTemplate xTemplate;
+    private final PlaceholderTemplate yTemplate;
+    private final PlaceholderTemplate zTemplate;
+    
     public TeleportAction(String x, String y, String z, String world) {
         this.x = x;
         this.y = y;
         this.z = z;
         this.world = world;
+        this.xTemplate = PlaceholderTemplate.compile(this.x);
+        this.yTemplate = PlaceholderTemplate.compile(this.y);
+        this.zTemplate = PlaceholderTemplate.compile(this.z);
     }
     
     public static TeleportAction parse(String value) {
@@ -41,9 +50,9 @@ public class TeleportAction extends Action {
         
         // Parse placeholders
         PlaceholderContext placeholderCtx = new PlaceholderContext(player, context.getSession(), context.getArguments());
-        String parsedX = ActionMenus.getInstance().getPlaceholderManager().parse(x, placeholderCtx);
-        String parsedY = ActionMenus.getInstance().getPlaceholderManager().parse(y, placeholderCtx);
-        String parsedZ = ActionMenus.getInstance().getPlaceholderManager().parse(z, placeholderCtx);
+        String parsedX = ActionMenus.getInstance().getPlaceholderManager().parse(xTemplate, placeholderCtx);
+        String parsedY = ActionMenus.getInstance().getPlaceholderManager().parse(yTemplate, placeholderCtx);
+        String parsedZ = ActionMenus.getInstance().getPlaceholderManager().parse(zTemplate, placeholderCtx);
         
         double targetX = parseCoord(parsedX, player.getX());
         double targetY = parseCoord(parsedY, player.getY());
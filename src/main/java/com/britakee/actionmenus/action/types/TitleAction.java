@@ -4,6 +4,7 @@ import com.britakee.actionmenus.ActionMenus;
 import com.britakee.actionmenus.action.Action;
 import com.britakee.actionmenus.action.ActionContext;
 import com.britakee.actionmenus.placeholder.PlaceholderContext;
+import com.britakee.actionmenus.placeholder.PlaceholderTemplate;
 import com.britakee.actionmenus.util.TextUtil;
 import net.minecraft.network.protocol.game.ClientboundSetSubtitleTextPacket;
 import net.minecraft.network.protocol.game.ClientboundSetTitleTextPacket;
@@ -17,7 +18,9 @@ import net.minecraft.server.level.ServerPlayer;
 public class TitleAction extends Action {
     
     private final String title;
+    private final PlaceholderTemplate titleTemplate;
     private final String subtitle;
+    private final PlaceholderTemplate subtitleTemplate;
     private final int fadeIn;
     private final int stay;
     private final int fadeOut;
@@ -28,6 +31,8 @@ public class TitleAction extends Action {
         this.fadeIn = fadeIn;
         this.stay = stay;
         this.fadeOut = fadeOut;
+        this.titleTemplate = PlaceholderTemplate.compile(this.title);
+        this.subtitleTemplate = PlaceholderTemplate.compile(this.subtitle);
     }
     
     public static TitleAction parse(String value) {
@@ -56,8 +61,8 @@ public class TitleAction extends Action {
         
         // Parse placeholders
         PlaceholderContext placeholderCtx = new PlaceholderContext(player, context.getSession(), context.getArguments());
-        String parsedTitle = ActionMenus.getInstance().getPlaceholderManager().parse(title, placeholderCtx);
-        String parsedSubtitle = ActionMenus.getInstance().getPlaceholderManager().parse(subtitle, placeholderCtx);
+        String parsedTitle = ActionMenus.getInstance().getPlaceholderManager().parse(titleTemplate, placeholderCtx);
+        String parsedSubtitle = ActionMenus.getInstance().getPlaceholderManager().parse(subtitleTemplate, placeholderCtx);
         
         // Send timing packet first
         player.connection.send(new ClientboundSetTitlesAnimationPacket(fadeIn, stay, fadeOut));
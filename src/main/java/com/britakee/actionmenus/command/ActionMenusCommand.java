@@ -3,7 +3,12 @@ package com.britakee.actionmenus.command;
 import com.britakee.actionmenus.ActionMenus;
 import com.britakee.actionmenus.action.ActionContext;
 import com.britakee.actionmenus.menu.MenuDefinition;
+import com.britakee.actionmenus.menu.MenuRenderPipeline;
 import com.britakee.actionmenus.menu.MenuSession;
+import com.britakee.actionmenus.menu.MenuUpdateScheduler;
+import com.britakee.actionmenus.placeholder.PlaceholderCache;
+import com.britakee.actionmenus.placeholder.ServerMetricsSampler;
+import com.britakee.actionmenus.util.ComponentCache;
 import com.britakee.actionmenus.util.TextUtil;
 import com.mojang.brigadier.CommandDispatcher;
 import com.mojang.brigadier.arguments.StringArgumentType;
@@ -31,6 +36,7 @@ public class ActionMenusCommand {
     private static final String PERMISSION_LIST = "actionmenus.command.list";
     private static final String PERMISSION_RELOAD = "actionmenus.command.reload";
     private static final String PERMISSION_EXECUTE = "actionmenus.command.execute";
+    private static final String PERMISSION_STATUS = "actionmenus.command.status";
     
     public static void register(CommandDispatcher<CommandSourceStack> dispatcher, ActionMenus mod) {
         // Register main command with aliases
@@ -55,6 +61,9 @@ public class ActionMenusCommand {
                         .then(Commands.argument("player", EntityArgument.player())
                                 .then(Commands.argument("action", StringArgumentType.greedyString())
                                         .executes(ctx -> executeAction(ctx, mod)))))
+                .then(Commands.literal("status")
+                        .requires(src -> hasPermission(src, PERMISSION_STATUS))
+                        .executes(ctx -> showStatus(ctx, mod)))
                 .then(Commands.literal("help")
                         .executes(ctx -> showHelp(ctx)))
                 .executes(ctx -> showHelp(ctx)));
@@ -238,6 +247,47 @@ public class ActionMenusCommand {
         return 1;
     }
     
+    /**
+     * /am status
+     */
+    private static int showStatus(CommandContext<CommandSourceStack> ctx, ActionMenus mod) {
+        PlaceholderCache cache = mod.getPlaceholderManager().getCache();
+        ComponentCache components = TextUtil.getComponentCache();
+        MenuUpdateScheduler scheduler = mod.getMenuUpdateScheduler();
+        ServerMetricsSampler.Snapshot metrics = mod.getPlaceholderManager().getMetricsSampler().getSnapshot();
+        
+        ctx.getSource().sendSuccess(() -> TextUtil.colorize("&6=== ActionMenus Status ==="), false);
+        ctx.getSource().sendSuccess(() -> TextUtil.colorize(String.format(
+                "&eServer: &f%.1f TPS &7| &eMSPT: &f%.2f &7(p95 %.2f, p99 %.2f)",
+                metrics.getTps(), metrics.getMsptMean(), metrics.getMsptP95(), metrics.getMsptP99())), false);
+        ctx.getSource().sendSuccess(() -> TextUtil.colorize(String.format(
+                "&ePlaceholder cache: &f%d/%d entries &7(%d ticks)",
+                cache.getSize(), cache.getMaxSize(), cache.getTtlTicks())), false);
+        ctx.getSource().sendSuccess(() -> TextUtil.colorize(String.format(
+                "&e  Hits: &a%d &eMisses: &c%d &eHit rate: &f%.1f%% &eEvictions: &f%d",
+                cache.getHits(), cache.getMisses(), cache.getHitRate(), cache.getEvictions())), false);
+        ctx.getSource().sendSuccess(() -> TextUtil.colorize(String.format(
+                "&eComponent cache: &f%d/%d entries &7(%d/%d chars)",
+                components.getSize(), components.getMaxSize(), components.getWeight(), components.getMaxWeight())), false);
+        ctx.getSource().sendSuccess(() -> TextUtil.colorize(String.format(
+                "&e  Hits: &a%d &eMisses: &c%d &eHit rate: &f%.1f%% &eEvictions: &f%d",
+                components.getHits(), components.getMisses(), components.getHitRate(), components.getEvictions())), false);
+        ctx.getSource().sendSuccess(() -> TextUtil.colorize(String.format(
+                "&eMenu updates: &f%d &7(budget %.1f ms/tick) &eQueued: &f%d &eDeferred: &f%d &eOverruns: &f%d",
+                scheduler.getUpdates(), scheduler.getBudgetMillis(), scheduler.getQueuedCount(),
+                scheduler.getDeferrals(), scheduler.getBudgetOverruns())), false);
+        ctx.getSource().sendSuccess(() -> TextUtil.colorize(scheduler.isAdaptiveThrottling()
+                ? String.format("&eThrottle: &fx%d &7(recently clicked x%d, target %.1f mspt)",
+                        scheduler.getMultiplier(), scheduler.getRecentMultiplier(), scheduler.getTargetMspt())
+                : "&eThrottle: &7off"), false);
+        MenuRenderPipeline pipeline = mod.getMenuManager().getRenderPipeline();
+        ctx.getSource().sendSuccess(() -> TextUtil.colorize(pipeline.isEnabled()
+                ? String.format("&eAsync rendering: &f%d threads &7(%d renders, %.0f us mean)",
+                        pipeline.getThreads(), pipeline.getRenders(), pipeline.getMeanWorkerMicros())
+                : "&eAsync rendering: &7off"), false);
+        return 1;
+    }
+    
     /**
      * /am help
      */
@@ -248,6 +298,7 @@ public class ActionMenusCommand {
         ctx.getSource().sendSuccess(() -> TextUtil.colorize("&e/am list &7- List all menus"), false);
         ctx.getSource().sendSuccess(() -> TextUtil.colorize("&e/am reload &7- Reload configurations"), false);
         ctx.getSource().sendSuccess(() -> TextUtil.colorize("&e/am execute <player> <action> &7- Execute an action"), false);
+        ctx.getSource().sendSuccess(() -> TextUtil.colorize("&e/am status &7- Show cache and performance statistics"), false);
         return 1;
     }
 }
@@ -1,7 +1,12 @@
 package com.britakee.actionmenus.condition;
 
 import com.britakee.actionmenus.ActionMenus;
+import com.britakee.actionmenus.placeholder.PlaceholderTemplate;
+import com.britakee.actionmenus.placeholder.PlaceholderVolatility;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.regex.Pattern;
 
@@ -18,6 +23,21 @@ public abstract class Condition {
             return true;
         }
         
+        @Override
+        public PlaceholderVolatility getVolatility() {
+            return PlaceholderVolatility.CONSTANT;
+        }
+        
+        @Override
+        public boolean isPlaceholderOnly() {
+            return true;
+        }
+        
+        @Override
+        public int getCost() {
+            return 0;
+        }
+        
         @Override
         public String toString() {
             return "ALWAYS_TRUE";
@@ -31,6 +51,21 @@ public abstract class Condition {
             return false;
         }
         
+        @Override
+        public PlaceholderVolatility getVolatility() {
+            return PlaceholderVolatility.CONSTANT;
+        }
+        
+        @Override
+        public boolean isPlaceholderOnly() {
+            return true;
+        }
+        
+        @Override
+        public int getCost() {
+            return 0;
+        }
+        
         @Override
         public String toString() {
             return "ALWAYS_FALSE";
@@ -42,6 +77,39 @@ public abstract class Condition {
      */
     public abstract boolean evaluate(ConditionContext context);
     
+    /**
+     * Get the placeholder templates this condition reads.
+     */
+    public List<PlaceholderTemplate> getTemplates() {
+        return Collections.emptyList();
+    }
+    
+    /**
+     * Get how often the result of this condition can change.
+     * Custom conditions are assumed to change every tick.
+     */
+    public PlaceholderVolatility getVolatility() {
+        return PlaceholderVolatility.PER_TICK;
+    }
+    
+    /**
+     * Check if the result depends on nothing but the placeholders in {@link #getTemplates()}.
+     * Custom conditions are assumed to read the player directly.
+     */
+    public boolean isPlaceholderOnly() {
+        return false;
+    }
+    
+    /**
+     * Get a rough relative cost of evaluating this condition, so combined
+     * conditions can test the cheap ones first. Constants cost nothing,
+     * a permission check costs 1 and every placeholder read adds 1.
+     * Custom conditions are assumed to be expensive.
+     */
+    public int getCost() {
+        return 4;
+    }
+    
     /**
      * Create a negated version of this condition.
      */
@@ -53,6 +121,26 @@ public abstract class Condition {
                 return !original.evaluate(context);
             }
             
+            @Override
+            public List<PlaceholderTemplate> getTemplates() {
+                return original.getTemplates();
+            }
+            
+            @Override
+            public PlaceholderVolatility getVolatility() {
+                return original.getVolatility();
+            }
+            
+            @Override
+            public boolean isPlaceholderOnly() {
+                return original.isPlaceholderOnly();
+            }
+            
+            @Override
+            public int getCost() {
+                return original.getCost();
+            }
+            
             @Override
             public String toString() {
                 return "NOT(" + original + ")";
@@ -60,6 +148,39 @@ public abstract class Condition {
         };
     }
     
+    /**
+     * Collect the templates of several conditions.
+     */
+    protected static List<PlaceholderTemplate> collectTemplates(List<Condition> conditions) {
+        List<PlaceholderTemplate> templates = new ArrayList<>();
+        for (Condition condition : conditions) {
+            templates.addAll(condition.getTemplates());
+        }
+        return templates;
+    }
+    
+    /**
+     * Count the placeholders read by some templates.
+     */
+    protected static int countReferences(List<PlaceholderTemplate> templates) {
+        int count = 0;
+        for (PlaceholderTemplate template : templates) {
+            count += template.getReferences().size();
+        }
+        return count;
+    }
+    
+    /**
+     * Order conditions cheapest first. Conditions have no side effects,
+     * so AND and OR give the same result in any order and stop at the first
+     * condition that decides it.
+     */
+    protected static List<Condition> byCost(List<Condition> conditions) {
+        List<Condition> sorted = new ArrayList<>(conditions);
+        sorted.sort(Comparator.comparingInt(Condition::getCost));
+        return sorted;
+    }
+    
     // Factory methods
     
     /**
@@ -157,6 +278,17 @@ public abstract class Condition {
                     .hasPermission(context.getPlayer(), permission);
         }
         
+        @Override
+        public PlaceholderVolatility getVolatility() {
+            // Permissions can be granted at any time, but not every tick
+            return PlaceholderVolatility.PER_SECOND;
+        }
+        
+        @Override
+        public int getCost() {
+            return 1;
+        }
+        
         @Override
         public String toString() {
             return "Permission{" + permission + "}";
@@ -169,19 +301,43 @@ public abstract class Condition {
     public static class StringEqualsCondition extends Condition {
         private final String input;
         private final String expected;
+        private final PlaceholderTemplate inputTemplate;
+        private final PlaceholderTemplate expectedTemplate;
         
         public StringEqualsCondition(String input, String expected) {
             this.input = input;
             this.expected = expected;
+            this.inputTemplate = PlaceholderTemplate.compile(input);
+            this.expectedTemplate = PlaceholderTemplate.compile(expected);
         }
         
         @Override
         public boolean evaluate(ConditionContext context) {
-            String resolvedInput = context.resolvePlaceholders(input);
-            String resolvedExpected = context.resolvePlaceholders(expected);
+            String resolvedInput = context.resolvePlaceholders(inputTemplate);
+            String resolvedExpected = context.resolvePlaceholders(expectedTemplate);
             return resolvedInput.equalsIgnoreCase(resolvedExpected);
         }
         
+        @Override
+        public List<PlaceholderTemplate> getTemplates() {
+            return List.of(inputTemplate, expectedTemplate);
+        }
+        
+        @Override
+        public PlaceholderVolatility getVolatility() {
+            return inputTemplate.getVolatility().max(expectedTemplate.getVolatility());
+        }
+        
+        @Override
+        public boolean isPlaceholderOnly() {
+            return true;
+        }
+        
+        @Override
+        public int getCost() {
+            return 1 + countReferences(getTemplates());
+        }
+        
         @Override
         public String toString() {
             return "StringEquals{" + input + " == " + expected + "}";
@@ -194,19 +350,43 @@ public abstract class Condition {
     public static class StringContainsCondition extends Condition {
         private final String input;
         private final String substring;
+        private final PlaceholderTemplate inputTemplate;
+        private final PlaceholderTemplate substringTemplate;
         
         public StringContainsCondition(String input, String substring) {
             this.input = input;
             this.substring = substring;
+            this.inputTemplate = PlaceholderTemplate.compile(input);
+            this.substringTemplate = PlaceholderTemplate.compile(substring);
         }
         
         @Override
         public boolean evaluate(ConditionContext context) {
-            String resolvedInput = context.resolvePlaceholders(input);
-            String resolvedSubstring = context.resolvePlaceholders(substring);
+            String resolvedInput = context.resolvePlaceholders(inputTemplate);
+            String resolvedSubstring = context.resolvePlaceholders(substringTemplate);
             return resolvedInput.toLowerCase().contains(resolvedSubstring.toLowerCase());
         }
         
+        @Override
+        public List<PlaceholderTemplate> getTemplates() {
+            return List.of(inputTemplate, substringTemplate);
+        }
+        
+        @Override
+        public PlaceholderVolatility getVolatility() {
+            return inputTemplate.getVolatility().max(substringTemplate.getVolatility());
+        }
+        
+        @Override
+        public boolean isPlaceholderOnly() {
+            return true;
+        }
+        
+        @Override
+        public int getCost() {
+            return 1 + countReferences(getTemplates());
+        }
+        
         @Override
         public String toString() {
             return "StringContains{" + input + " contains " + substring + "}";
@@ -218,11 +398,13 @@ public abstract class Condition {
      */
     public static class RegexCondition extends Condition {
         private final String input;
+        private final PlaceholderTemplate inputTemplate;
         private final String patternStr;
         private Pattern pattern;
         
         public RegexCondition(String input, String pattern) {
             this.input = input;
+            this.inputTemplate = PlaceholderTemplate.compile(input);
             this.patternStr = pattern;
             try {
                 this.pattern = Pattern.compile(pattern);
@@ -234,10 +416,30 @@ public abstract class Condition {
         @Override
         public boolean evaluate(ConditionContext context) {
             if (pattern == null) return false;
-            String resolved = context.resolvePlaceholders(input);
+            String resolved = context.resolvePlaceholders(inputTemplate);
             return pattern.matcher(resolved).matches();
         }
         
+        @Override
+        public List<PlaceholderTemplate> getTemplates() {
+            return List.of(inputTemplate);
+        }
+        
+        @Override
+        public PlaceholderVolatility getVolatility() {
+            return inputTemplate.getVolatility();
+        }
+        
+        @Override
+        public boolean isPlaceholderOnly() {
+            return true;
+        }
+        
+        @Override
+        public int getCost() {
+            return 2 + countReferences(getTemplates());
+        }
+        
         @Override
         public String toString() {
             return "Regex{" + input + " matches " + patternStr + "}";
@@ -251,14 +453,35 @@ public abstract class Condition {
         private final String left;
         private final String operator;
         private final String right;
+        private final PlaceholderTemplate leftTemplate;
+        private final PlaceholderTemplate rightTemplate;
+        
+        // Operands without placeholders are parsed once, null if not numeric
+        private final Double leftConstant;
+        private final Double rightConstant;
         
         public ComparisonCondition(String left, String operator, String right) {
+            this(left, operator, right, true);
+        }
+        
+        private ComparisonCondition(String left, String operator, String right, boolean intern) {
             this.left = left;
             this.operator = operator;
             this.right = right;
+            this.leftTemplate = intern ? PlaceholderTemplate.compile(left) : PlaceholderTemplate.compileTransient(left);
+            this.rightTemplate = intern ? PlaceholderTemplate.compile(right) : PlaceholderTemplate.compileTransient(right);
+            this.leftConstant = leftTemplate.hasPlaceholders() ? null : parseNumber(left);
+            this.rightConstant = rightTemplate.hasPlaceholders() ? null : parseNumber(right);
         }
         
         public static ComparisonCondition parse(String expression) {
+            return parse(expression, true);
+        }
+        
+        /**
+         * @param intern False for expressions met at runtime, see {@link PlaceholderTemplate#compileTransient}
+         */
+        private static ComparisonCondition parse(String expression, boolean intern) {
             // Try different operators
             String[] operators = {">=", "<=", "!=", "==", ">", "<"};
             
@@ -267,41 +490,72 @@ public abstract class Condition {
                 if (idx > 0) {
                     String left = expression.substring(0, idx).trim();
                     String right = expression.substring(idx + op.length()).trim();
-                    return new ComparisonCondition(left, op, right);
+                    return new ComparisonCondition(left, op, right, intern);
                 }
             }
             
-            return new ComparisonCondition(expression, "==", "true");
+            return new ComparisonCondition(expression, "==", "true", intern);
         }
         
         @Override
         public boolean evaluate(ConditionContext context) {
-            String resolvedLeft = context.resolvePlaceholders(left);
-            String resolvedRight = context.resolvePlaceholders(right);
+            String resolvedLeft = context.resolvePlaceholders(leftTemplate);
+            String resolvedRight = context.resolvePlaceholders(rightTemplate);
             
-            try {
-                double leftNum = Double.parseDouble(resolvedLeft);
-                double rightNum = Double.parseDouble(resolvedRight);
-                
+            Double leftNum = leftTemplate.hasPlaceholders() ? parseNumber(resolvedLeft) : leftConstant;
+            Double rightNum = leftNum == null ? null
+                    : rightTemplate.hasPlaceholders() ? parseNumber(resolvedRight) : rightConstant;
+            
+            if (leftNum != null && rightNum != null) {
+                double l = leftNum;
+                double r = rightNum;
                 return switch (operator) {
-                    case "==" -> leftNum == rightNum;
-                    case "!=" -> leftNum != rightNum;
-                    case ">" -> leftNum > rightNum;
-                    case "<" -> leftNum < rightNum;
-                    case ">=" -> leftNum >= rightNum;
-                    case "<=" -> leftNum <= rightNum;
+                    case "==" -> l == r;
+                    case "!=" -> l != r;
+                    case ">" -> l > r;
+                    case "<" -> l < r;
+                    case ">=" -> l >= r;
+                    case "<=" -> l <= r;
                     default -> false;
                 };
+            }
+            
+            // Fall back to string comparison
+            return switch (operator) {
+                case "==" -> resolvedLeft.equalsIgnoreCase(resolvedRight);
+                case "!=" -> !resolvedLeft.equalsIgnoreCase(resolvedRight);
+                default -> false;
+            };
+        }
+        
+        private static Double parseNumber(String value) {
+            try {
+                return Double.parseDouble(value);
             } catch (NumberFormatException e) {
-                // Fall back to string comparison
-                return switch (operator) {
-                    case "==" -> resolvedLeft.equalsIgnoreCase(resolvedRight);
-                    case "!=" -> !resolvedLeft.equalsIgnoreCase(resolvedRight);
-                    default -> false;
-                };
+                return null;
             }
         }
         
+        @Override
+        public List<PlaceholderTemplate> getTemplates() {
+            return List.of(leftTemplate, rightTemplate);
+        }
+        
+        @Override
+        public PlaceholderVolatility getVolatility() {
+            return leftTemplate.getVolatility().max(rightTemplate.getVolatility());
+        }
+        
+        @Override
+        public boolean isPlaceholderOnly() {
+            return true;
+        }
+        
+        @Override
+        public int getCost() {
+            return 1 + countReferences(getTemplates());
+        }
+        
         @Override
         public String toString() {
             return "Comparison{" + left + " " + operator + " " + right + "}";
@@ -314,24 +568,46 @@ public abstract class Condition {
      */
     public static class ExpressionCondition extends Condition {
         private final String expression;
+        private final PlaceholderTemplate expressionTemplate;
         
         public ExpressionCondition(String expression) {
             this.expression = expression;
+            this.expressionTemplate = PlaceholderTemplate.compile(expression);
         }
         
         @Override
         public boolean evaluate(ConditionContext context) {
-            String resolved = context.resolvePlaceholders(expression);
+            String resolved = context.resolvePlaceholders(expressionTemplate);
             
             // Simple true/false check
             if (resolved.equalsIgnoreCase("true")) return true;
             if (resolved.equalsIgnoreCase("false")) return false;
             
-            // Try to parse as comparison
-            ComparisonCondition comp = ComparisonCondition.parse(resolved);
+            // Try to parse as comparison, the resolved text is new on each evaluation
+            ComparisonCondition comp = ComparisonCondition.parse(resolved, false);
             return comp.evaluate(context);
         }
         
+        @Override
+        public List<PlaceholderTemplate> getTemplates() {
+            return List.of(expressionTemplate);
+        }
+        
+        @Override
+        public PlaceholderVolatility getVolatility() {
+            return expressionTemplate.getVolatility();
+        }
+        
+        @Override
+        public boolean isPlaceholderOnly() {
+            return true;
+        }
+        
+        @Override
+        public int getCost() {
+            return 2 + countReferences(getTemplates());
+        }
+        
         @Override
         public String toString() {
             return "Expression{" + expression + "}";
@@ -345,7 +621,7 @@ public abstract class Condition {
         private final List<Condition> conditions;
         
         public AndCondition(List<Condition> conditions) {
-            this.conditions = conditions;
+            this.conditions = byCost(conditions);
         }
         
         @Override
@@ -358,6 +634,39 @@ public abstract class Condition {
             return true;
         }
         
+        @Override
+        public List<PlaceholderTemplate> getTemplates() {
+            return collectTemplates(conditions);
+        }
+        
+        @Override
+        public PlaceholderVolatility getVolatility() {
+            PlaceholderVolatility volatility = PlaceholderVolatility.CONSTANT;
+            for (Condition condition : conditions) {
+                volatility = volatility.max(condition.getVolatility());
+            }
+            return volatility;
+        }
+        
+        @Override
+        public boolean isPlaceholderOnly() {
+            for (Condition condition : conditions) {
+                if (!condition.isPlaceholderOnly()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        @Override
+        public int getCost() {
+            int cost = 0;
+            for (Condition condition : conditions) {
+                cost += condition.getCost();
+            }
+            return cost;
+        }
+        
         @Override
         public String toString() {
             return "AND" + conditions;
@@ -371,7 +680,7 @@ public abstract class Condition {
         private final List<Condition> conditions;
         
         public OrCondition(List<Condition> conditions) {
-            this.conditions = conditions;
+            this.conditions = byCost(conditions);
         }
         
         @Override
@@ -384,6 +693,39 @@ public abstract class Condition {
             return false;
         }
         
+        @Override
+        public List<PlaceholderTemplate> getTemplates() {
+            return collectTemplates(conditions);
+        }
+        
+        @Override
+        public PlaceholderVolatility getVolatility() {
+            PlaceholderVolatility volatility = PlaceholderVolatility.CONSTANT;
+            for (Condition condition : conditions) {
+                volatility = volatility.max(condition.getVolatility());
+            }
+            return volatility;
+        }
+        
+        @Override
+        public boolean isPlaceholderOnly() {
+            for (Condition condition : conditions) {
+                if (!condition.isPlaceholderOnly()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        @Override
+        public int getCost() {
+            int cost = 0;
+            for (Condition condition : conditions) {
+                cost += condition.getCost();
+            }
+            return cost;
+        }
+        
         @Override
         public String toString() {
             return "OR" + conditions;
@@ -2,6 +2,7 @@ package com.britakee.actionmenus.condition;
 
 import com.britakee.actionmenus.placeholder.PlaceholderContext;
 import com.britakee.actionmenus.placeholder.PlaceholderManager;
+import com.britakee.actionmenus.placeholder.PlaceholderTemplate;
 import net.minecraft.server.level.ServerPlayer;
 
 /**
@@ -48,4 +49,11 @@ public class ConditionContext {
         }
         return placeholderManager.parse(input, placeholderContext);
     }
+    
+    /**
+     * Resolve placeholders in a compiled template.
+     */
+    public String resolvePlaceholders(PlaceholderTemplate template) {
+        return placeholderManager.parse(template, placeholderContext);
+    }
 }
@@ -5,13 +5,20 @@ import com.britakee.actionmenus.action.ActionRegistry;
 import com.britakee.actionmenus.config.model.ActionConfig;
 import com.britakee.actionmenus.config.model.ActionConfigDeserializer;
 import com.britakee.actionmenus.menu.MenuDefinition;
+import com.britakee.actionmenus.menu.MenuManager;
 import com.britakee.actionmenus.menu.MenuRegistry;
+import com.britakee.actionmenus.menu.MenuRenderPipeline;
+import com.britakee.actionmenus.menu.MenuUpdateScheduler;
+import com.britakee.actionmenus.placeholder.PlaceholderCache;
 import com.britakee.actionmenus.placeholder.PlaceholderManager;
+import com.britakee.actionmenus.util.ComponentCache;
+import com.britakee.actionmenus.util.TextUtil;
 import com.google.gson.*;
 
 import java.io.*;
 import java.nio.file.*;
 import java.util.*;
+import java.util.function.Function;
 
 /**
  * Manages loading and reloading of all configuration files.
@@ -33,6 +40,8 @@ public class ConfigManager {
     private final MenuRegistry menuRegistry;
     private final ActionRegistry actionRegistry;
     private final PlaceholderManager placeholderManager;
+    private final MenuUpdateScheduler updateScheduler;
+    private final MenuManager menuManager;
     private final Gson gson;
     private final DeluxeMenuParser menuParser;
     
@@ -40,14 +49,17 @@ public class ConfigManager {
     private boolean debug = false;
     private Map<String, String> guiMenus = new LinkedHashMap<>(); // menu_id -> filename
     
-    public ConfigManager(Path configDir, MenuRegistry menuRegistry, 
-                         ActionRegistry actionRegistry, PlaceholderManager placeholderManager) {
+    public ConfigManager(Path configDir, MenuRegistry menuRegistry, ActionRegistry actionRegistry,
+                         PlaceholderManager placeholderManager, MenuUpdateScheduler updateScheduler,
+                         MenuManager menuManager) {
         this.configDir = configDir;
         this.menusDir = configDir.resolve("menus");
         this.configFile = configDir.resolve("config.json");
         this.menuRegistry = menuRegistry;
         this.actionRegistry = actionRegistry;
         this.placeholderManager = placeholderManager;
+        this.updateScheduler = updateScheduler;
+        this.menuManager = menuManager;
         this.gson = new GsonBuilder()
                 .setPrettyPrinting()
                 .disableHtmlEscaping()
@@ -193,6 +205,10 @@ public class ConfigManager {
                 debug = config.get("debug").getAsBoolean();
             }
             
+            // Load performance settings, missing keys fall back to defaults
+            loadPerformanceSettings(config.has("performance") && config.get("performance").isJsonObject()
+                    ? config.getAsJsonObject("performance") : new JsonObject());
+            
             // Load gui_menus mapping
             if (config.has("gui_menus") && config.get("gui_menus").isJsonObject()) {
                 JsonObject menus = config.getAsJsonObject("gui_menus");
@@ -218,6 +234,62 @@ public class ConfigManager {
         }
     }
     
+    /**
+     * Load the "performance" section of the main config.
+     */
+    private void loadPerformanceSettings(JsonObject performance) {
+        PlaceholderCache cache = placeholderManager.getCache();
+        cache.setMaxSize(getInt(performance, "placeholder_cache_size", PlaceholderCache.DEFAULT_MAX_SIZE));
+        cache.setTtlTicks(getInt(performance, "placeholder_cache_ticks", PlaceholderCache.DEFAULT_TTL_TICKS));
+        
+        TextUtil.getComponentCache().setLimits(
+                getInt(performance, "component_cache_size", ComponentCache.DEFAULT_MAX_SIZE),
+                getLong(performance, "component_cache_weight", ComponentCache.DEFAULT_MAX_WEIGHT));
+        
+        updateScheduler.setBudgetMillis(getDouble(performance, "update_budget_ms", MenuUpdateScheduler.DEFAULT_BUDGET_MS));
+        updateScheduler.setAdaptiveThrottling(
+                getBoolean(performance, "adaptive_throttling", true),
+                getDouble(performance, "target_mspt", MenuUpdateScheduler.DEFAULT_TARGET_MSPT),
+                getInt(performance, "max_interval_multiplier", MenuUpdateScheduler.DEFAULT_MAX_MULTIPLIER));
+        
+        menuManager.getRenderPipeline().configure(
+                getBoolean(performance, "async_rendering", false),
+                getInt(performance, "render_threads", MenuRenderPipeline.DEFAULT_THREADS));
+        
+        menuManager.setInPlaceNavigation(getBoolean(performance, "in_place_navigation", true));
+    }
+    
+    private static int getInt(JsonObject json, String key, int defaultValue) {
+        return getValue(json, key, defaultValue, JsonElement::getAsInt);
+    }
+    
+    private static long getLong(JsonObject json, String key, long defaultValue) {
+        return getValue(json, key, defaultValue, JsonElement::getAsLong);
+    }
+    
+    private static boolean getBoolean(JsonObject json, String key, boolean defaultValue) {
+        return getValue(json, key, defaultValue, JsonElement::getAsBoolean);
+    }
+    
+    private static double getDouble(JsonObject json, String key, double defaultValue) {
+        return getValue(json, key, defaultValue, JsonElement::getAsDouble);
+    }
+    
+    /**
+     * Read a setting, falling back to the default if it is missing or has the wrong type.
+     */
+    private static <T> T getValue(JsonObject json, String key, T defaultValue, Function<JsonElement, T> reader) {
+        if (!json.has(key)) {
+            return defaultValue;
+        }
+        try {
+            return reader.apply(json.get(key));
+        } catch (RuntimeException e) {
+            ActionMenus.LOGGER.warn("Invalid value for '{}' in config: {}, using {}", key, json.get(key), defaultValue);
+            return defaultValue;
+        }
+    }
+    
     /**
      * Load all menu definitions from the menus directory.
      */
@@ -238,6 +310,9 @@ public class ConfigManager {
                 ActionMenus.LOGGER.warn("Menu file not found: {} (for menu '{}')", fileName, menuId);
             }
         }
+        
+        // Bind the placeholders used by the loaded menus and report unknown ones
+        placeholderManager.bindPending();
     }
     
     /**
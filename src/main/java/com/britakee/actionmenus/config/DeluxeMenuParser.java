@@ -5,8 +5,10 @@ import com.britakee.actionmenus.action.Action;
 import com.britakee.actionmenus.action.ActionRegistry;
 import com.britakee.actionmenus.condition.Condition;
 import com.britakee.actionmenus.menu.ClickType;
+import com.britakee.actionmenus.menu.ListEntry;
 import com.britakee.actionmenus.menu.MenuDefinition;
 import com.britakee.actionmenus.menu.MenuItem;
+import com.britakee.actionmenus.menu.MenuPagination;
 import com.google.gson.*;
 
 import java.util.*;
@@ -29,6 +31,15 @@ import java.util.*;
  *       "left_click_commands": ["[player] say Hello"],
  *       "right_click_commands": ["[close]"]
  *     }
+ *   },
+ *   "pagination": {
+ *     "layout": ["xxxxxxxxx", "xxxxxxxxx", "xxxxxxxxx"],
+ *     "item": {
+ *       "material": "ENDER_PEARL",
+ *       "display_name": "&b%entry_name%",
+ *       "left_click_commands": ["[player] warp %entry_name%"]
+ *     },
+ *     "entries": [{"name": "spawn"}, {"name": "shop"}]
  *   }
  * }
  */
@@ -52,8 +63,12 @@ public class DeluxeMenuParser {
             int size = getIntOrDefault(json, "size", 27);
             int rows = Math.max(1, Math.min(6, size / 9));
             
-            // Get update interval
-            int updateInterval = getIntOrDefault(json, "update_interval", 0) * 20; // Convert seconds to ticks
+            // Get update interval in seconds, converted to ticks.
+            // 0 disables polling, event-driven placeholders still update live.
+            // Menus without the key keep refreshing every tick.
+            int updateInterval = json.has("update_interval")
+                    ? getIntOrDefault(json, "update_interval", 0) * 20
+                    : 1;
             
             MenuDefinition.Builder builder = MenuDefinition.builder()
                     .id(menuId)
@@ -118,8 +133,14 @@ public class DeluxeMenuParser {
                 builder.closeActions(parseActions(json.get("close_commands")));
             }
             
-            // Parse items
-            Map<Integer, MenuItem> items = new HashMap<>();
+            // Parse the paged list before the items, which must stay out of its slots
+            MenuPagination pagination = null;
+            if (json.has("pagination") && json.get("pagination").isJsonObject()) {
+                pagination = parsePagination(json.getAsJsonObject("pagination"), size);
+                builder.pagination(pagination);
+            }
+            
+            // Parse items, several items in one slot become candidates ordered by priority
             if (json.has("items") && json.get("items").isJsonObject()) {
                 JsonObject itemsObj = json.getAsJsonObject("items");
                 
@@ -133,16 +154,17 @@ public class DeluxeMenuParser {
                     if (item != null) {
                         // Place item in all slots
                         for (int slot : item.getSlots()) {
-                            if (slot >= 0 && slot < size) {
-                                items.put(slot, item);
+                            if (pagination != null && pagination.isPageSlot(slot)) {
+                                ActionMenus.LOGGER.warn("Item {} in menu {} is placed in page slot {} and is ignored",
+                                        itemId, menuId, slot);
+                            } else if (slot >= 0 && slot < size) {
+                                builder.addItem(slot, item);
                             }
                         }
                     }
                 }
             }
             
-            builder.items(items);
-            
             return builder.build();
             
         } catch (Exception e) {
@@ -272,6 +294,67 @@ public class DeluxeMenuParser {
         return builder.build();
     }
     
+    /**
+     * Parse a paged list from JSON.
+     * The layout is one string per row, where 'x' marks the slots entries fill;
+     * an explicit "slots" list can be given instead. Entries are objects of
+     * field values, or plain strings read as the "value" field. A "list" names
+     * a list provider to take the entries from instead, optionally followed by
+     * its argument, e.g. "registry minecraft:enchantment".
+     */
+    private MenuPagination parsePagination(JsonObject json, int size) {
+        List<Integer> slots = new ArrayList<>();
+        if (json.has("layout")) {
+            List<String> rows = parseStringList(json.get("layout"));
+            for (int row = 0; row < rows.size(); row++) {
+                String line = rows.get(row);
+                for (int column = 0; column < Math.min(9, line.length()); column++) {
+                    if (Character.toLowerCase(line.charAt(column)) == 'x') {
+                        slots.add(row * 9 + column);
+                    }
+                }
+            }
+        } else if (json.has("slots")) {
+            slots.addAll(parseIntList(json.get("slots")));
+        }
+        
+        MenuItem template = json.has("item") && json.get("item").isJsonObject()
+                ? parseItem("pagination", json.getAsJsonObject("item"))
+                : MenuItem.builder().id("pagination").material("minecraft:paper").displayName("%entry_value%").build();
+        
+        int[] slotArray = slots.stream().mapToInt(Integer::intValue).toArray();
+        String list = getStringOrDefault(json, "list", "").trim();
+        if (!list.isEmpty()) {
+            int space = list.indexOf(' ');
+            String listId = space < 0 ? list : list.substring(0, space);
+            String argument = space < 0 ? "" : list.substring(space + 1).trim();
+            if (ActionMenus.getInstance().getPlaceholderManager().getListProvider(listId) == null) {
+                ActionMenus.LOGGER.warn("Unknown list provider '{}', the list stays empty until one is registered", listId);
+            }
+            return new MenuPagination(slotArray, size, template, listId, argument);
+        }
+        
+        List<ListEntry> entries = new ArrayList<>();
+        if (json.has("entries") && json.get("entries").isJsonArray()) {
+            for (JsonElement element : json.getAsJsonArray("entries")) {
+                String index = String.valueOf(entries.size());
+                if (element.isJsonObject()) {
+                    Map<String, String> values = new HashMap<>();
+                    for (Map.Entry<String, JsonElement> field : element.getAsJsonObject().entrySet()) {
+                        if (field.getValue().isJsonPrimitive()) {
+                            values.put(field.getKey(), field.getValue().getAsString());
+                        }
+                    }
+                    entries.add(new ListEntry(values.getOrDefault("key", index), values));
+                } else if (element.isJsonPrimitive()) {
+                    entries.add(new ListEntry(index, Map.of("value", element.getAsString())));
+                }
+            }
+        }
+        
+        return new MenuPagination(slotArray, size, template, entries);
+    }
+    
     /**
      * Parse a requirement/condition from JSON.
      */
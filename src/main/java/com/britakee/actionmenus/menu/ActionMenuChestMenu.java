@@ -17,7 +17,7 @@ import net.minecraft.server.level.ServerPlayer;
  */
 public class ActionMenuChestMenu extends ChestMenu {
     
-    private final String menuId;
+    private String menuId;
     
     public ActionMenuChestMenu(MenuType<ChestMenu> type, int containerId, Inventory playerInventory, 
                                 Container container, int rows, String menuId) {
@@ -81,4 +81,11 @@ public class ActionMenuChestMenu extends ChestMenu {
     public String getMenuId() {
         return menuId;
     }
+    
+    /**
+     * Set the menu ID when another menu is shown in this container.
+     */
+    void setMenuId(String menuId) {
+        this.menuId = menuId;
+    }
 }
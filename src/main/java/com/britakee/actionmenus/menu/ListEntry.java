@@ -0,0 +1,75 @@
+package com.britakee.actionmenus.menu;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * One entry of a menu list: a key identifying it and the values
+ * shown through the %entry_<field>% placeholders.
+ */
+public final class ListEntry {
+    
+    private final String key;
+    private final Map<String, String> values;
+    
+    /**
+     * @param key Identifies the entry within its list
+     * @param values Field values by field name, names are matched ignoring case
+     */
+    public ListEntry(String key, Map<String, String> values) {
+        this.key = key;
+        Map<String, String> lowerValues = new HashMap<>();
+        values.forEach((field, value) -> lowerValues.put(field.toLowerCase(), value));
+        this.values = Collections.unmodifiableMap(lowerValues);
+    }
+    
+    public String getKey() {
+        return key;
+    }
+    
+    public Map<String, String> getValues() {
+        return values;
+    }
+    
+    /**
+     * Get the value of an entry placeholder.
+     * Besides the entry's fields, "key" is its key and "index" and "number"
+     * its position in the list, counted from 0 and from 1.
+     *
+     * @param field The placeholder without the entry_ prefix
+     * @param index The entry's position in its list
+     * @return The value, or an empty string for unknown fields
+     */
+    public String resolve(String field, int index) {
+        String lowerField = field.toLowerCase();
+        String value = values.get(lowerField);
+        if (value != null) {
+            return value;
+        }
+        return switch (lowerField) {
+            case "key" -> key;
+            case "index" -> String.valueOf(index);
+            case "number" -> String.valueOf(index + 1);
+            default -> "";
+        };
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ListEntry other)) return false;
+        return key.equals(other.key) && values.equals(other.values);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(key, values);
+    }
+    
+    @Override
+    public String toString() {
+        return "ListEntry{" + key + "}";
+    }
+}
@@ -0,0 +1,105 @@
+package com.britakee.actionmenus.menu;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The entries of a provider-backed list as one session shows them.
+ *
+ * Entries keep their position while they stay in the list. Fresh entries are
+ * matched to the shown ones by key: new ones fill the positions of removed
+ * ones or are appended, and gaps left over are closed by moving the last
+ * entry into them. A player joining therefore changes one position and a
+ * player leaving at most two, instead of shifting every entry after them.
+ */
+final class ListState {
+    
+    private final List<ListEntry> entries = new ArrayList<>();
+    private final List<ListEntry> view = Collections.unmodifiableList(entries);
+    
+    // Tick the list was last fetched, -1 when it must be fetched again
+    private volatile long tick = -1;
+    
+    List<ListEntry> getEntries() {
+        return view;
+    }
+    
+    long getTick() {
+        return tick;
+    }
+    
+    void setTick(long tick) {
+        this.tick = tick;
+    }
+    
+    void markDirty() {
+        this.tick = -1;
+    }
+    
+    /**
+     * Match fresh entries against the shown ones by key.
+     * Entries with a key already seen in the fresh list are ignored.
+     *
+     * @return The positions whose entry was inserted, removed or changed
+     */
+    BitSet reconcile(List<ListEntry> fresh) {
+        BitSet changed = new BitSet();
+        Map<String, ListEntry> remaining = new LinkedHashMap<>();
+        for (ListEntry entry : fresh) {
+            remaining.putIfAbsent(entry.getKey(), entry);
+        }
+        
+        // Shown entries stay in place, removed ones leave a gap
+        for (int i = 0; i < entries.size(); i++) {
+            ListEntry shown = entries.get(i);
+            ListEntry updated = remaining.remove(shown.getKey());
+            if (!Objects.equals(shown, updated)) {
+                entries.set(i, updated);
+                changed.set(i);
+            }
+        }
+        
+        // New entries fill the gaps first, then go at the end
+        int gap = nextGap(0);
+        for (ListEntry added : remaining.values()) {
+            if (gap >= 0) {
+                entries.set(gap, added);
+                changed.set(gap);
+                gap = nextGap(gap + 1);
+            } else {
+                changed.set(entries.size());
+                entries.add(added);
+            }
+        }
+        
+        // Close the remaining gaps with the entries at the end
+        while (gap >= 0) {
+            int last = entries.size() - 1;
+            ListEntry moved = entries.remove(last);
+            changed.set(last);
+            if (last == gap) {
+                break;
+            }
+            if (moved != null) {
+                entries.set(gap, moved);
+                changed.set(gap);
+                gap = nextGap(gap + 1);
+            }
+        }
+        return changed;
+    }
+    
+    private int nextGap(int from) {
+        for (int i = from; i < entries.size(); i++) {
+            if (entries.get(i) == null) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -2,6 +2,8 @@ package com.britakee.actionmenus.menu;
 
 import com.britakee.actionmenus.action.Action;
 import com.britakee.actionmenus.condition.Condition;
+import com.britakee.actionmenus.placeholder.PlaceholderTemplate;
+import com.britakee.actionmenus.placeholder.PlaceholderVolatility;
 
 import java.util.*;
 
@@ -13,6 +15,7 @@ public class MenuDefinition {
     
     private final String id;
     private final String title;
+    private final PlaceholderTemplate titleTemplate;
     private final int rows;
     private final int size;
     private final String sourceFile;
@@ -33,11 +36,23 @@ public class MenuDefinition {
     private final List<Action> openActions;
     private final List<Action> closeActions;
     
+    // First candidate of each slot, and each slot's candidates in evaluation order
     private final Map<Integer, MenuItem> items;
+    private final Map<Integer, List<MenuItem>> candidates;
+    
+    // Paged list of entries, null for menus without one
+    private final MenuPagination pagination;
+    
+    // Built on first use, after the menu's placeholders have been bound
+    private volatile MenuDependencyGraph dependencyGraph;
+    
+    // Slots rendered once for all viewers, analyzed on first open
+    private volatile SharedMenuRender sharedRender;
     
     private MenuDefinition(Builder builder) {
         this.id = builder.id;
         this.title = builder.title;
+        this.titleTemplate = PlaceholderTemplate.compile(builder.title);
         this.rows = builder.rows;
         this.size = builder.rows * 9;
         this.sourceFile = builder.sourceFile;
@@ -52,7 +67,45 @@ public class MenuDefinition {
         this.openRequirement = builder.openRequirement;
         this.openActions = Collections.unmodifiableList(new ArrayList<>(builder.openActions));
         this.closeActions = Collections.unmodifiableList(new ArrayList<>(builder.closeActions));
-        this.items = Collections.unmodifiableMap(new HashMap<>(builder.items));
+        this.pagination = builder.pagination;
+        
+        Map<Integer, List<MenuItem>> chains = new HashMap<>();
+        Map<Integer, MenuItem> firstItems = new HashMap<>();
+        for (Map.Entry<Integer, List<MenuItem>> entry : builder.items.entrySet()) {
+            // Page slots belong to the list
+            if (pagination != null && pagination.isPageSlot(entry.getKey())) {
+                continue;
+            }
+            List<MenuItem> chain = compileCandidates(entry.getValue());
+            if (!chain.isEmpty()) {
+                chains.put(entry.getKey(), chain);
+                firstItems.put(entry.getKey(), chain.get(0));
+            }
+        }
+        this.candidates = Collections.unmodifiableMap(chains);
+        this.items = Collections.unmodifiableMap(firstItems);
+    }
+    
+    /**
+     * Order a slot's candidates by priority, lowest first, and drop the ones that
+     * can never show: those whose view requirement always fails, and those after
+     * a candidate without a view requirement.
+     */
+    private static List<MenuItem> compileCandidates(List<MenuItem> candidates) {
+        List<MenuItem> sorted = new ArrayList<>(candidates);
+        sorted.sort(Comparator.comparingInt(MenuItem::getPriority));
+        
+        List<MenuItem> chain = new ArrayList<>();
+        for (MenuItem candidate : sorted) {
+            if (candidate.getViewRequirement() == Condition.ALWAYS_FALSE) {
+                continue;
+            }
+            chain.add(candidate);
+            if (!candidate.hasViewRequirement()) {
+                break;
+            }
+        }
+        return List.copyOf(chain);
     }
     
     public static Builder builder() {
@@ -68,6 +121,10 @@ public class MenuDefinition {
         return title;
     }
     
+    public PlaceholderTemplate getTitleTemplate() {
+        return titleTemplate;
+    }
+    
     public int getRows() {
         return rows;
     }
@@ -97,7 +154,7 @@ public class MenuDefinition {
     }
     
     public boolean shouldAutoUpdate() {
-        return updateInterval > 0 && hasDynamicContent();
+        return updateInterval > 0 && hasPolledContent();
     }
     
     public boolean isPreventClose() {
@@ -144,38 +201,93 @@ public class MenuDefinition {
         return items;
     }
     
+    /**
+     * Get the first candidate of a slot, or null if the slot is empty.
+     * Most slots have a single candidate; a slot with several shows the
+     * first one whose view requirement passes, see {@link #getCandidates(int)}.
+     */
     public MenuItem getItem(int slot) {
         return items.get(slot);
     }
     
+    /**
+     * Get the items competing for a slot in evaluation order, lowest priority first.
+     * Only the last candidate can lack a view requirement.
+     */
+    public List<MenuItem> getCandidates(int slot) {
+        return candidates.getOrDefault(slot, List.of());
+    }
+    
+    /**
+     * Check if a slot has more than one candidate.
+     */
+    public boolean hasCandidates(int slot) {
+        return getCandidates(slot).size() > 1;
+    }
+    
+    /**
+     * Get the paged list of this menu, or null if it has none.
+     */
+    public MenuPagination getPagination() {
+        return pagination;
+    }
+    
+    public boolean hasPagination() {
+        return pagination != null;
+    }
+    
+    /**
+     * Get the graph of which slots depend on which placeholders.
+     */
+    public MenuDependencyGraph getDependencyGraph() {
+        MenuDependencyGraph graph = dependencyGraph;
+        if (graph == null) {
+            graph = MenuDependencyGraph.build(this);
+            dependencyGraph = graph;
+        }
+        return graph;
+    }
+    
+    SharedMenuRender getSharedRender() {
+        return sharedRender;
+    }
+    
+    void setSharedRender(SharedMenuRender sharedRender) {
+        this.sharedRender = sharedRender;
+    }
+    
     /**
      * Check if this menu has any dynamic content that needs refreshing.
      */
     public boolean hasDynamicContent() {
-        // Check if title has placeholders
-        if (title.contains("%")) {
-            return true;
+        // Only items count, the title only updates on reopen
+        for (List<MenuItem> chain : candidates.values()) {
+            for (MenuItem item : chain) {
+                if (!item.getVolatility().isStable()) {
+                    return true;
+                }
+            }
         }
         
-        // Check if any item is dynamic
-        for (MenuItem item : items.values()) {
-            if (item.isDynamic()) {
-                return true;
-            }
-            // Also check for placeholders in display name/lore
-            if (item.getDisplayName() != null && item.getDisplayName().contains("%")) {
-                return true;
-            }
-            if (item.getLore() != null) {
-                for (String line : item.getLore()) {
-                    if (line.contains("%")) {
-                        return true;
-                    }
+        return pagination != null && !pagination.getTemplate().getVolatility().isStable();
+    }
+    
+    /**
+     * Check if this menu has content that must be polled on the update interval.
+     * Event-driven placeholders are pushed when their event fires instead.
+     */
+    public boolean hasPolledContent() {
+        for (List<MenuItem> chain : candidates.values()) {
+            for (MenuItem item : chain) {
+                if (item.getVolatility().ordinal() > PlaceholderVolatility.EVENT_DRIVEN.ordinal()) {
+                    return true;
                 }
             }
         }
         
-        return false;
+        // Lists from a provider may change without an event
+        return pagination != null && (pagination.hasListProvider()
+                || pagination.getTemplate().getVolatility().ordinal() > PlaceholderVolatility.EVENT_DRIVEN.ordinal());
     }
     
     @Override
@@ -207,7 +319,8 @@ public class MenuDefinition {
         private Condition openRequirement = Condition.ALWAYS_TRUE;
         private List<Action> openActions = new ArrayList<>();
         private List<Action> closeActions = new ArrayList<>();
-        private Map<Integer, MenuItem> items = new HashMap<>();
+        private Map<Integer, List<MenuItem>> items = new HashMap<>();
+        private MenuPagination pagination;
         
         public Builder id(String id) {
             this.id = id;
@@ -245,7 +358,7 @@ public class MenuDefinition {
         }
         
         public Builder updateInterval(int updateInterval) {
-            this.updateInterval = Math.max(1, updateInterval);
+            this.updateInterval = Math.max(0, updateInterval);
             return this;
         }
         
@@ -290,12 +403,25 @@ public class MenuDefinition {
         }
         
         public Builder items(Map<Integer, MenuItem> items) {
-            this.items = items;
+            this.items = new HashMap<>();
+            items.forEach(this::addItem);
             return this;
         }
         
+        /**
+         * Add a candidate for a slot. Several candidates in one slot are
+         * evaluated by priority and the first whose view requirement passes is shown.
+         */
         public Builder addItem(int slot, MenuItem item) {
-            this.items.put(slot, item);
+            this.items.computeIfAbsent(slot, s -> new ArrayList<>()).add(item);
+            return this;
+        }
+        
+        /**
+         * Show a paged list of entries. Items placed in its page slots are ignored.
+         */
+        public Builder pagination(MenuPagination pagination) {
+            this.pagination = pagination;
             return this;
         }
         
@@ -0,0 +1,183 @@
+package com.britakee.actionmenus.menu;
+
+import com.britakee.actionmenus.condition.Condition;
+import com.britakee.actionmenus.placeholder.PlaceholderReference;
+import com.britakee.actionmenus.placeholder.PlaceholderTemplate;
+import com.britakee.actionmenus.placeholder.PlaceholderVolatility;
+
+import java.util.*;
+
+/**
+ * Maps the placeholders used by a menu to the slots that depend on them.
+ * Built once per menu definition so a refresh can resolve each placeholder
+ * once and rebuild only the slots whose resolved inputs changed.
+ *
+ * A slot depends on the placeholders in its display name, lore, skull owner
+ * and view requirement, across all of its candidates. Placeholders in view
+ * requirements also decide which candidate a slot shows. Inputs that are not
+ * placeholders, such as the "dynamic" flag or permission checks, are tracked
+ * as the slot's own volatility.
+ */
+public final class MenuDependencyGraph {
+    
+    /** Ticks between checks of values that change at most once per second */
+    private static final int TICKS_PER_SECOND = 20;
+    
+    private final PlaceholderReference[] references;
+    private final Map<PlaceholderReference, Integer> indexByReference;
+    private final int[][] slotsByReference;
+    private final int[][] selectingSlotsByReference;
+    private final PlaceholderVolatility[] slotVolatility;
+    
+    private MenuDependencyGraph(PlaceholderReference[] references, int[][] slotsByReference,
+                                int[][] selectingSlotsByReference, PlaceholderVolatility[] slotVolatility) {
+        this.references = references;
+        this.slotsByReference = slotsByReference;
+        this.selectingSlotsByReference = selectingSlotsByReference;
+        this.slotVolatility = slotVolatility;
+        this.indexByReference = new HashMap<>(references.length * 2);
+        for (int i = 0; i < references.length; i++) {
+            indexByReference.put(references[i], i);
+        }
+    }
+    
+    /**
+     * Build the graph for a menu.
+     */
+    public static MenuDependencyGraph build(MenuDefinition menu) {
+        Map<PlaceholderReference, List<Integer>> slotsByRef = new LinkedHashMap<>();
+        Map<PlaceholderReference, List<Integer>> selectingSlotsByRef = new HashMap<>();
+        PlaceholderVolatility[] slotVolatility = new PlaceholderVolatility[menu.getSize()];
+        Arrays.fill(slotVolatility, PlaceholderVolatility.CONSTANT);
+        
+        for (int slot = 0; slot < menu.getSize(); slot++) {
+            for (MenuItem item : menu.getCandidates(slot)) {
+                List<PlaceholderTemplate> templates = new ArrayList<>();
+                if (item.getDisplayNameTemplate() != null) {
+                    templates.add(item.getDisplayNameTemplate());
+                }
+                if (item.getLoreTemplates() != null) {
+                    templates.addAll(item.getLoreTemplates());
+                }
+                if (item.getSkullOwnerTemplate() != null) {
+                    templates.add(item.getSkullOwnerTemplate());
+                }
+                
+                Condition requirement = item.getViewRequirement();
+                if (requirement != null) {
+                    List<PlaceholderTemplate> conditionTemplates = requirement.getTemplates();
+                    templates.addAll(conditionTemplates);
+                    slotVolatility[slot] = slotVolatility[slot].max(getOwnVolatility(requirement, conditionTemplates));
+                    addSlot(selectingSlotsByRef, conditionTemplates, slot);
+                }
+                if (item.isDynamic()) {
+                    slotVolatility[slot] = PlaceholderVolatility.PER_TICK;
+                }
+                
+                addSlot(slotsByRef, templates, slot);
+            }
+        }
+        
+        PlaceholderReference[] references = slotsByRef.keySet().toArray(new PlaceholderReference[0]);
+        int[][] slotsByReference = new int[references.length][];
+        int[][] selectingSlotsByReference = new int[references.length][];
+        for (int i = 0; i < references.length; i++) {
+            slotsByReference[i] = toArray(slotsByRef.get(references[i]));
+            selectingSlotsByReference[i] = toArray(selectingSlotsByRef.getOrDefault(references[i], List.of()));
+        }
+        
+        return new MenuDependencyGraph(references, slotsByReference, selectingSlotsByReference, slotVolatility);
+    }
+    
+    /**
+     * Record that a slot uses the placeholders of some templates.
+     */
+    private static void addSlot(Map<PlaceholderReference, List<Integer>> slotsByRef,
+                                List<PlaceholderTemplate> templates, int slot) {
+        for (PlaceholderTemplate template : templates) {
+            for (PlaceholderReference reference : template.getReferences()) {
+                List<Integer> slots = slotsByRef.computeIfAbsent(reference, r -> new ArrayList<>());
+                if (slots.isEmpty() || slots.get(slots.size() - 1) != slot) {
+                    slots.add(slot);
+                }
+            }
+        }
+    }
+    
+    private static int[] toArray(List<Integer> slots) {
+        return slots.stream().mapToInt(Integer::intValue).toArray();
+    }
+    
+    /**
+     * Get the volatility a condition has beyond its placeholders,
+     * e.g. a permission check that can change without any placeholder changing.
+     */
+    private static PlaceholderVolatility getOwnVolatility(Condition condition, List<PlaceholderTemplate> templates) {
+        PlaceholderVolatility templateVolatility = PlaceholderVolatility.CONSTANT;
+        for (PlaceholderTemplate template : templates) {
+            templateVolatility = templateVolatility.max(template.getVolatility());
+        }
+        
+        PlaceholderVolatility volatility = condition.getVolatility();
+        return volatility.ordinal() > templateVolatility.ordinal() ? volatility : PlaceholderVolatility.CONSTANT;
+    }
+    
+    /**
+     * Check if a value last checked at lastTick needs checking again.
+     *
+     * @param lastTick The tick of the last check, or -1 if never checked or marked dirty
+     */
+    public static boolean isDue(PlaceholderVolatility volatility, long lastTick, long currentTick) {
+        if (lastTick < 0) {
+            return true;
+        }
+        
+        return switch (volatility) {
+            // Event-driven values are only checked again once an event marks them dirty
+            case CONSTANT, PER_SESSION, EVENT_DRIVEN -> false;
+            case PER_SECOND -> currentTick - lastTick >= TICKS_PER_SECOND;
+            case PER_TICK -> true;
+        };
+    }
+    
+    /**
+     * Get the number of distinct placeholders used by the menu's slots.
+     */
+    public int getReferenceCount() {
+        return references.length;
+    }
+    
+    public PlaceholderReference getReference(int index) {
+        return references[index];
+    }
+    
+    /**
+     * Get the index of a placeholder, or -1 if no slot uses it.
+     */
+    public int indexOf(PlaceholderReference reference) {
+        Integer index = indexByReference.get(reference);
+        return index != null ? index : -1;
+    }
+    
+    /**
+     * Get the slots that depend on a placeholder.
+     */
+    public int[] getSlots(int index) {
+        return slotsByReference[index];
+    }
+    
+    /**
+     * Get the slots whose choice of candidate depends on a placeholder,
+     * because it appears in one of their view requirements.
+     */
+    public int[] getSelectingSlots(int index) {
+        return selectingSlotsByReference[index];
+    }
+    
+    /**
+     * Get the volatility of a slot's inputs that are not placeholders.
+     */
+    public PlaceholderVolatility getSlotVolatility(int slot) {
+        return slotVolatility[slot];
+    }
+}
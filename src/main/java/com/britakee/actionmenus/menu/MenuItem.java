@@ -2,6 +2,10 @@ package com.britakee.actionmenus.menu;
 
 import com.britakee.actionmenus.action.Action;
 import com.britakee.actionmenus.condition.Condition;
+import com.britakee.actionmenus.placeholder.PlaceholderTemplate;
+import com.britakee.actionmenus.placeholder.PlaceholderVolatility;
+import com.britakee.actionmenus.util.ItemBuilder;
+import net.minecraft.world.item.ItemStack;
 
 import java.util.*;
 
@@ -21,6 +25,11 @@ public class MenuItem {
     private final String displayName;
     private final List<String> lore;
     
+    // Display properties compiled once at load
+    private final PlaceholderTemplate displayNameTemplate;
+    private final List<PlaceholderTemplate> loreTemplates;
+    private final PlaceholderTemplate skullOwnerTemplate;
+    
     // Item modifiers
     private final int customModelData;
     private final boolean enchanted;
@@ -39,6 +48,9 @@ public class MenuItem {
     // Actions by click type
     private final Map<ClickType, List<Action>> clickActions;
     
+    // Stack built once for items that look the same for every player, null otherwise
+    private final ItemStack prototype;
+    
     private MenuItem(Builder builder) {
         this.id = builder.id;
         this.slots = Collections.unmodifiableList(new ArrayList<>(builder.slots));
@@ -60,6 +72,52 @@ public class MenuItem {
         this.viewRequirement = builder.viewRequirement;
         this.clickRequirement = builder.clickRequirement;
         this.clickActions = Collections.unmodifiableMap(new EnumMap<>(builder.clickActions));
+        
+        this.displayNameTemplate = displayName != null ? PlaceholderTemplate.compile(displayName) : null;
+        this.loreTemplates = lore != null ? compileAll(lore) : null;
+        this.skullOwnerTemplate = skullOwner != null ? PlaceholderTemplate.compile(skullOwner) : null;
+        
+        this.prototype = computeStatic() ? buildPrototype() : null;
+    }
+    
+    /**
+     * Check if the item renders the same for every player at any time:
+     * no placeholders, no view requirement and not dynamic.
+     * Skulls with an owner are excluded since the viewer's own head uses their profile.
+     */
+    private boolean computeStatic() {
+        return !dynamic
+                && !hasViewRequirement()
+                && !hasPlaceholders()
+                && skullOwner == null;
+    }
+    
+    private ItemStack buildPrototype() {
+        ItemBuilder builder = new ItemBuilder(material)
+                .amount(amount)
+                .name(displayName)
+                .lore(lore);
+        if (customModelData > 0) {
+            builder.customModelData(customModelData);
+        }
+        if (enchanted) {
+            builder.enchantGlint();
+        }
+        if (skullTexture != null) {
+            builder.skullTexture(skullTexture);
+        }
+        if (itemFlags != null) {
+            builder.hideFlags(itemFlags);
+        }
+        return builder.build();
+    }
+    
+    private static List<PlaceholderTemplate> compileAll(List<String> lines) {
+        List<PlaceholderTemplate> templates = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            templates.add(PlaceholderTemplate.compile(line));
+        }
+        return Collections.unmodifiableList(templates);
     }
     
     public static Builder builder() {
@@ -129,6 +187,14 @@ public class MenuItem {
         return lore;
     }
     
+    public PlaceholderTemplate getDisplayNameTemplate() {
+        return displayNameTemplate;
+    }
+    
+    public List<PlaceholderTemplate> getLoreTemplates() {
+        return loreTemplates;
+    }
+    
     public int getCustomModelData() {
         return customModelData;
     }
@@ -141,6 +207,67 @@ public class MenuItem {
         return skullOwner;
     }
     
+    public PlaceholderTemplate getSkullOwnerTemplate() {
+        return skullOwnerTemplate;
+    }
+    
+    /**
+     * Get how often the rendered item can change, based on its placeholders
+     * and view requirement. Items marked dynamic always count as per-tick.
+     */
+    public PlaceholderVolatility getVolatility() {
+        if (dynamic) {
+            return PlaceholderVolatility.PER_TICK;
+        }
+        
+        PlaceholderVolatility volatility = viewRequirement != null
+                ? viewRequirement.getVolatility() : PlaceholderVolatility.CONSTANT;
+        if (displayNameTemplate != null) {
+            volatility = volatility.max(displayNameTemplate.getVolatility());
+        }
+        if (loreTemplates != null) {
+            for (PlaceholderTemplate line : loreTemplates) {
+                volatility = volatility.max(line.getVolatility());
+            }
+        }
+        if (skullOwnerTemplate != null) {
+            volatility = volatility.max(skullOwnerTemplate.getVolatility());
+        }
+        return volatility;
+    }
+    
+    /**
+     * Check if the display name or lore contains any placeholders.
+     */
+    public boolean hasPlaceholders() {
+        if (displayNameTemplate != null && displayNameTemplate.hasPlaceholders()) {
+            return true;
+        }
+        if (loreTemplates != null) {
+            for (PlaceholderTemplate line : loreTemplates) {
+                if (line.hasPlaceholders()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Check if the item has a prebuilt stack, so it never needs to be built or refreshed.
+     */
+    public boolean isStatic() {
+        return prototype != null;
+    }
+    
+    /**
+     * Get the stack built at load for a static item, or null if the item is built per player.
+     * The stack is shared, copy it before handing it out.
+     */
+    public ItemStack getPrototype() {
+        return prototype;
+    }
+    
     public String getSkullTexture() {
         return skullTexture;
     }
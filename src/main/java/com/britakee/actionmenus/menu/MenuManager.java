@@ -6,16 +6,24 @@ import com.britakee.actionmenus.action.ActionContext;
 import com.britakee.actionmenus.action.ActionExecutor;
 import com.britakee.actionmenus.condition.ConditionContext;
 import com.britakee.actionmenus.condition.ConditionEvaluator;
+import com.britakee.actionmenus.placeholder.ListProvider;
+import com.britakee.actionmenus.placeholder.PlaceholderChangeListener;
 import com.britakee.actionmenus.placeholder.PlaceholderContext;
 import com.britakee.actionmenus.placeholder.PlaceholderManager;
+import com.britakee.actionmenus.placeholder.PlaceholderReference;
+import com.britakee.actionmenus.placeholder.PlaceholderTemplate;
+import com.britakee.actionmenus.placeholder.PlaceholderVolatility;
 import com.britakee.actionmenus.util.ItemBuilder;
 import com.britakee.actionmenus.util.TextUtil;
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.network.chat.Component;
+import net.minecraft.network.protocol.game.ClientboundContainerSetSlotPacket;
+import net.minecraft.network.protocol.game.ClientboundOpenScreenPacket;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.sounds.SoundEvent;
 import net.minecraft.sounds.SoundSource;
+import net.minecraft.world.Container;
 import net.minecraft.world.SimpleMenuProvider;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.inventory.ChestMenu;
@@ -27,12 +35,17 @@ import net.neoforged.neoforge.event.entity.player.PlayerEvent;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * Core manager for opening, closing, and updating menus.
  * Handles player sessions and inventory events.
  */
-public class MenuManager {
+public class MenuManager implements PlaceholderChangeListener {
+    
+    // Changed slots above which a refresh sends the full menu content instead
+    private static final int FULL_SYNC_THRESHOLD = 16;
     
     private final MenuRegistry menuRegistry;
     private final PlaceholderManager placeholderManager;
@@ -45,12 +58,23 @@ public class MenuManager {
     // Container ID -> Player UUID (for tracking which container belongs to which session)
     private final Map<Integer, UUID> containerToPlayer = new ConcurrentHashMap<>();
     
+    // Runs timed and event-driven refreshes, set once at startup
+    private MenuUpdateScheduler updateScheduler;
+    
+    // Worker threads for refreshes rendered off the server thread
+    private final MenuRenderPipeline renderPipeline = new MenuRenderPipeline();
+    
+    // Whether menus of the same size are opened in the container of the previous one
+    private boolean inPlaceNavigation = true;
+    
     public MenuManager(MenuRegistry menuRegistry, PlaceholderManager placeholderManager,
                        ConditionEvaluator conditionEvaluator, ActionExecutor actionExecutor) {
         this.menuRegistry = menuRegistry;
         this.placeholderManager = placeholderManager;
         this.conditionEvaluator = conditionEvaluator;
         this.actionExecutor = actionExecutor;
+        
+        placeholderManager.addChangeListener(this);
     }
     
     /**
@@ -100,8 +124,17 @@ public class MenuManager {
                 }
             }
         
-        // Close any existing menu
-        closeMenu(player);
+        // Close any existing menu, keeping its container if the new menu fits in it
+        MenuSession previous = activeSessions.get(player.getUUID());
+        ActionMenuChestMenu reused = getReusableMenu(player, menu);
+        if (reused != null) {
+            endSession(player);
+        } else {
+            closeMenu(player);
+        }
+        
+        // Cached values may belong to the previous menu's arguments
+        placeholderManager.invalidate(player.getUUID());
         
         // Create session
         MenuSession session = new MenuSession(player, menu, arguments);
@@ -109,28 +142,34 @@ public class MenuManager {
         
         // Build the inventory
         PlaceholderContext ctx = new PlaceholderContext(player, session, arguments);
-        Component title = TextUtil.colorize(placeholderManager.parse(menu.getTitle(), ctx));
+        Component title = TextUtil.colorizeCached(placeholderManager.parse(menu.getTitleTemplate(), ctx));
+        session.setTitle(title);
         
         // Determine menu type based on rows
         MenuType<ChestMenu> menuType = getMenuType(menu.getRows());
         
-        // Open the container
-        player.openMenu(new SimpleMenuProvider(
-                (containerId, playerInv, p) -> {
-                    ActionMenuContainer container = new ActionMenuContainer(menu.getSize());
-                    ActionMenuChestMenu chestMenu = new ActionMenuChestMenu(
-                            menuType, containerId, playerInv, container, menu.getRows(), menu.getId());
-                    
-                    // Track this container
-                    containerToPlayer.put(containerId, player.getUUID());
-                    
-                    // Populate items
-                    populateMenu(chestMenu, player, session);
-                    
-                    return chestMenu;
-                },
-                title
-        ));
+        // Close actions of the previous menu may have closed its container
+        if (reused != null && player.containerMenu == reused) {
+            swapMenu(player, reused, session, previous.getTitle());
+        } else {
+            // Open the container
+            player.openMenu(new SimpleMenuProvider(
+                    (containerId, playerInv, p) -> {
+                        ActionMenuContainer container = new ActionMenuContainer(menu.getSize());
+                        ActionMenuChestMenu chestMenu = new ActionMenuChestMenu(
+                                menuType, containerId, playerInv, container, menu.getRows(), menu.getId());
+                        
+                        // Track this container
+                        containerToPlayer.put(containerId, player.getUUID());
+                        
+                        // Populate items
+                        populateMenu(chestMenu, player, session);
+                        
+                        return chestMenu;
+                    },
+                    title
+            ));
+        }
         
         // Play open sound if configured
         if (menu.hasOpenSound()) {
@@ -146,6 +185,10 @@ public class MenuManager {
         }
         
         session.setLastUpdateTick(player.server.getTickCount());
+        session.setLastInteractionTick(player.server.getTickCount());
+        if (updateScheduler != null && isActive(session)) {
+            updateScheduler.schedule(session, player.server.getTickCount());
+        }
         
         ActionMenus.LOGGER.debug("Opened menu {} for player {}", menu.getId(), player.getName().getString());
         return true;
@@ -158,6 +201,61 @@ public class MenuManager {
         }
     }
     
+    /**
+     * Get the open container if a menu can be shown in it instead of opening a new one:
+     * it belongs to the player's current menu and has the same size as the new one.
+     */
+    private ActionMenuChestMenu getReusableMenu(ServerPlayer player, MenuDefinition menu) {
+        if (!inPlaceNavigation || !activeSessions.containsKey(player.getUUID())) {
+            return null;
+        }
+        if (!(player.containerMenu instanceof ActionMenuChestMenu chestMenu)
+                || !player.getUUID().equals(containerToPlayer.get(chestMenu.containerId))) {
+            return null;
+        }
+        
+        boolean sameSize = chestMenu.getType() == getMenuType(menu.getRows())
+                && chestMenu.getContainer().getContainerSize() == menu.getSize();
+        return sameSize ? chestMenu : null;
+    }
+    
+    /**
+     * Show a new session in the container of the previous menu.
+     * The container id and the client's screen are kept, so the cursor stays where
+     * it was and only the slots whose stack differs are sent. If the title changed,
+     * the screen is reopened under the same container id, which keeps the cursor
+     * but needs the full contents.
+     */
+    private void swapMenu(ServerPlayer player, ActionMenuChestMenu chestMenu, MenuSession session,
+                          Component previousTitle) {
+        Container container = chestMenu.getContainer();
+        ItemStack[] shown = new ItemStack[container.getContainerSize()];
+        for (int slot = 0; slot < shown.length; slot++) {
+            shown[slot] = container.getItem(slot);
+        }
+        
+        chestMenu.setMenuId(session.getMenu().getId());
+        populateMenu(chestMenu, player, session);
+        
+        if (!session.getTitle().equals(previousTitle)) {
+            player.connection.send(new ClientboundOpenScreenPacket(
+                    chestMenu.containerId, chestMenu.getType(), session.getTitle()));
+            chestMenu.sendAllDataToRemote();
+            return;
+        }
+        
+        int[] changedSlots = new int[shown.length];
+        int changedCount = 0;
+        for (int slot = 0; slot < shown.length; slot++) {
+            if (!ItemStack.matches(shown[slot], container.getItem(slot))) {
+                changedSlots[changedCount++] = slot;
+            }
+        }
+        if (changedCount > 0) {
+            sendSlotChanges(player, chestMenu, changedSlots, changedCount);
+        }
+    }
+    
     /**
      * Play a sound for a player.
      * Supports any namespace:sound format (minecraft:, modid:, etc.)
@@ -190,6 +288,13 @@ public class MenuManager {
         MenuDefinition menu = session.getMenu();
         PlaceholderContext ctx = new PlaceholderContext(player, session, session.getArguments());
         ConditionContext condCtx = new ConditionContext(player, ctx, placeholderManager, conditionEvaluator);
+        long tick = player.server.getTickCount();
+        
+        SharedMenuRender shared = getSharedRender(menu);
+        if (shared.hasSharedSlots()) {
+            refreshShared(menu, shared, tick, false);
+            showShared(shared, session, container.getContainer(), new int[menu.getSize()]);
+        }
         
         for (int slot = 0; slot < menu.getSize(); slot++) {
             MenuItem item = menu.getItem(slot);
@@ -198,43 +303,83 @@ public class MenuManager {
                 container.getContainer().setItem(slot, ItemStack.EMPTY);
                 continue;
             }
+            if (shared.isShared(slot)) {
+                continue;
+            }
             
-            // Check view requirement
-            if (item.hasViewRequirement()) {
-                if (!conditionEvaluator.evaluate(item.getViewRequirement(), condCtx)) {
-                    container.getContainer().setItem(slot, ItemStack.EMPTY);
-                    session.setCachedItem(slot, ItemStack.EMPTY);
-                    continue;
-                }
+            // Static items are copied from their prototype and never refreshed
+            if (item.isStatic()) {
+                ItemStack stack = item.getPrototype().copy();
+                container.getContainer().setItem(slot, stack);
+                session.setRendered(slot, stack, null);
+                continue;
+            }
+            
+            // Pick the candidate whose view requirement passes
+            MenuItem shown = selectCandidate(menu, slot, condCtx);
+            if (shown == null) {
+                container.getContainer().setItem(slot, ItemStack.EMPTY);
+                session.setRendered(slot, ItemStack.EMPTY, SlotFingerprint.HIDDEN);
+                continue;
             }
             
             // Build the item
-            ItemStack stack = buildItem(item, ctx);
+            SlotFingerprint inputs = resolveItem(shown, ctx);
+            ItemStack stack = buildItem(inputs, ctx);
             container.getContainer().setItem(slot, stack);
-            session.setCachedItem(slot, stack);
+            session.setRendered(slot, stack, inputs);
         }
+        
+        if (menu.hasPagination()) {
+            renderPage(session, ctx, container.getContainer(), null, 0, tick, true);
+        }
+        
+        recordDependencies(session, shared, ctx, tick);
+    }
+    
+    /**
+     * Resolve the placeholders of an item for a player.
+     */
+    private SlotFingerprint resolveItem(MenuItem item, PlaceholderContext ctx) {
+        return resolveItem(item, reference -> placeholderManager.resolve(reference, ctx));
+    }
+    
+    /**
+     * Resolve the placeholders of an item with the given function.
+     */
+    private static SlotFingerprint resolveItem(MenuItem item, Function<PlaceholderReference, String> resolver) {
+        String name = item.getDisplayNameTemplate() != null
+                ? item.getDisplayNameTemplate().render(resolver) : null;
+        
+        String[] lore = null;
+        List<PlaceholderTemplate> loreTemplates = item.getLoreTemplates();
+        if (loreTemplates != null && !loreTemplates.isEmpty()) {
+            lore = new String[loreTemplates.size()];
+            for (int i = 0; i < lore.length; i++) {
+                lore[i] = loreTemplates.get(i).render(resolver);
+            }
+        }
+        
+        String skullOwner = item.getSkullOwnerTemplate() != null
+                ? item.getSkullOwnerTemplate().render(resolver) : null;
+        
+        return new SlotFingerprint(item, name, lore, skullOwner);
     }
     
     /**
-     * Build an ItemStack from a MenuItem with placeholder resolution.
+     * Build an ItemStack from an item's resolved inputs.
+     * Only reads the player's identity, so it may run off the server thread.
      */
-    private ItemStack buildItem(MenuItem item, PlaceholderContext ctx) {
+    private static ItemStack buildItem(SlotFingerprint inputs, PlaceholderContext ctx) {
+        MenuItem item = inputs.getItem();
         ItemBuilder builder = new ItemBuilder(item.getMaterial())
                 .amount(item.getAmount());
         
-        // Display name with placeholders
-        if (item.getDisplayName() != null) {
-            String name = placeholderManager.parse(item.getDisplayName(), ctx);
-            builder.name(name);
+        if (inputs.getName() != null) {
+            builder.name(inputs.getName());
         }
-        
-        // Lore with placeholders
-        if (item.getLore() != null && !item.getLore().isEmpty()) {
-            List<String> parsedLore = new ArrayList<>();
-            for (String line : item.getLore()) {
-                parsedLore.add(placeholderManager.parse(line, ctx));
-            }
-            builder.lore(parsedLore);
+        if (inputs.getLore() != null) {
+            builder.lore(Arrays.asList(inputs.getLore()));
         }
         
         // Modifiers
@@ -244,8 +389,8 @@ public class MenuManager {
         if (item.isEnchanted()) {
             builder.enchantGlint();
         }
-        if (item.getSkullOwner() != null) {
-            String owner = placeholderManager.parse(item.getSkullOwner(), ctx);
+        if (inputs.getSkullOwner() != null) {
+            String owner = inputs.getSkullOwner();
             // If the owner name matches the player, use their full GameProfile with skin data
             if (owner.equalsIgnoreCase(ctx.getPlayer().getName().getString())) {
                 builder.skullProfile(ctx.getPlayer().getGameProfile());
@@ -264,61 +409,680 @@ public class MenuManager {
     }
     
     /**
-     * Update a player's open menu.
+     * Update a player's open menu, re-resolving every placeholder that can change.
      */
     public void updateMenu(ServerPlayer player) {
+        updateMenu(player, true);
+    }
+    
+    /**
+     * Update a player's open menu.
+     * Only placeholders that are due are resolved, and only slots whose
+     * resolved inputs changed are rebuilt.
+     * 
+     * @param force Resolve every placeholder that can change, not just the due ones
+     */
+    public void updateMenu(ServerPlayer player, boolean force) {
         MenuSession session = activeSessions.get(player.getUUID());
         if (session == null) {
             return;
         }
         
+        if (renderPipeline.isEnabled() && player.containerMenu instanceof ChestMenu chestMenu) {
+            prepareRender(player, session, chestMenu, force);
+            return;
+        }
+        session.clearPendingUpdate();
+        
         if (player.containerMenu instanceof ChestMenu chestMenu) {
             MenuDefinition menu = session.getMenu();
+            MenuDependencyGraph graph = menu.getDependencyGraph();
             PlaceholderContext ctx = new PlaceholderContext(player, session, session.getArguments());
             ConditionContext condCtx = new ConditionContext(player, ctx, placeholderManager, conditionEvaluator);
+            long tick = player.server.getTickCount();
+            SharedMenuRender shared = getSharedRender(menu);
             
-            boolean changed = false;
+            // Resolve the placeholders that are due and mark the slots using changed values
+            for (int i = 0; i < graph.getReferenceCount(); i++) {
+                PlaceholderReference reference = graph.getReference(i);
+                if (shared.isSharedOnly(i) || !isDue(reference.getVolatility(), session.getPlaceholderTick(i), tick, force)) {
+                    continue;
+                }
+                
+                String value = placeholderManager.resolve(reference, ctx);
+                if (session.updatePlaceholderValue(i, value, tick)) {
+                    for (int slot : graph.getSlots(i)) {
+                        if (!shared.isShared(slot)) {
+                            session.markSlotDirty(slot);
+                        }
+                    }
+                    for (int slot : graph.getSelectingSlots(i)) {
+                        session.markSelectionDirty(slot);
+                    }
+                }
+            }
+            
+            // Slots whose stack changed, allocated on the first change
+            int[] changedSlots = null;
+            int changedCount = 0;
+            
+            if (shared.hasSharedSlots()) {
+                refreshShared(menu, shared, tick, force);
+                changedSlots = new int[menu.getSize()];
+                changedCount = showShared(shared, session, chestMenu.getContainer(), changedSlots);
+            }
             
             for (int slot = 0; slot < menu.getSize(); slot++) {
                 MenuItem item = menu.getItem(slot);
+                if (item == null || item.isStatic() || shared.isShared(slot)) {
+                    continue;
+                }
                 
-                ItemStack newStack;
-                if (item == null) {
-                    newStack = ItemStack.EMPTY;
-                } else if (item.hasViewRequirement() && !conditionEvaluator.evaluate(item.getViewRequirement(), condCtx)) {
-                    newStack = ItemStack.EMPTY;
-                } else {
-                    newStack = buildItem(item, ctx);
+                // Inputs that are not placeholders, like the dynamic flag or permissions
+                if (isDue(graph.getSlotVolatility(slot), session.getSlotTick(slot), tick, force)) {
+                    session.setSlotTick(slot, tick);
+                    session.markSlotDirty(slot);
+                    session.markSelectionDirty(slot);
                 }
                 
-                // Compare with cached (handle null cached items)
-                ItemStack cached = session.getCachedItem(slot);
-                if (cached == null) {
-                    cached = ItemStack.EMPTY;
+                // Slots whose inputs did not change keep their last render
+                boolean reselect = session.takeSelectionDirty(slot);
+                SlotFingerprint previous = session.getFingerprint(slot);
+                if (!session.takeSlotDirty(slot) && previous != null) {
+                    continue;
                 }
-                if (!ItemStack.isSameItemSameComponents(newStack, cached)) {
-                    chestMenu.getContainer().setItem(slot, newStack);
-                    session.setCachedItem(slot, newStack);
-                    changed = true;
+                
+                // The shown candidate is kept until an input of the view requirements changes
+                MenuItem shown = reselect || previous == null ? selectCandidate(menu, slot, condCtx) : previous.getItem();
+                SlotFingerprint inputs = shown == null ? SlotFingerprint.HIDDEN : resolveItem(shown, ctx);
+                
+                // Same inputs build the same stack, skip building it
+                if (inputs.equals(session.getFingerprint(slot))) {
+                    continue;
                 }
+                
+                ItemStack newStack = inputs == SlotFingerprint.HIDDEN ? ItemStack.EMPTY : buildItem(inputs, ctx);
+                chestMenu.getContainer().setItem(slot, newStack);
+                session.setRendered(slot, newStack, inputs);
+                if (changedSlots == null) {
+                    changedSlots = new int[menu.getSize()];
+                }
+                changedSlots[changedCount++] = slot;
             }
             
-            // Update title if it has placeholders
-            if (menu.getTitle().contains("%")) {
-                Component newTitle = TextUtil.colorize(placeholderManager.parse(menu.getTitle(), ctx));
-                // Note: Title updates require packet manipulation in 1.21.1
-                // This is a limitation - title only updates on reopen
+            if (menu.hasPagination()) {
+                if (changedSlots == null) {
+                    changedSlots = new int[menu.getSize()];
+                }
+                changedCount = renderPage(session, ctx, chestMenu.getContainer(), changedSlots, changedCount, tick, force);
             }
             
-            if (changed) {
-                // Send slot updates to client
-                player.containerMenu.broadcastChanges();
+            // Note: Title updates require packet manipulation in 1.21.1
+            // This is a limitation - title only updates on reopen
+            
+            if (changedCount > 0) {
+                sendSlotChanges(player, chestMenu, changedSlots, changedCount);
             }
             
             session.setLastUpdateTick(player.server.getTickCount());
         }
     }
     
+    /**
+     * Pick the item a slot shows: the first of its candidates, by priority,
+     * whose view requirement passes. Evaluation stops at the first that passes.
+     *
+     * @return The shown candidate, or null if none passes
+     */
+    private MenuItem selectCandidate(MenuDefinition menu, int slot, ConditionContext condCtx) {
+        for (MenuItem candidate : menu.getCandidates(slot)) {
+            if (!candidate.hasViewRequirement() || conditionEvaluator.evaluate(candidate.getViewRequirement(), condCtx)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Get the shared render state of a menu, finding its shared slots on first use.
+     */
+    private SharedMenuRender getSharedRender(MenuDefinition menu) {
+        SharedMenuRender shared = menu.getSharedRender();
+        if (shared == null) {
+            shared = SharedMenuRender.analyze(menu, placeholderManager);
+            menu.setSharedRender(shared);
+        }
+        return shared;
+    }
+    
+    /**
+     * Refresh the shared slots of a menu, at most once per tick however many viewers it has.
+     * Their placeholders read no viewer, so they are resolved without a player.
+     */
+    private void refreshShared(MenuDefinition menu, SharedMenuRender shared, long tick, boolean force) {
+        if (shared.getRefreshTick() == tick) {
+            return;
+        }
+        shared.setRefreshTick(tick);
+        
+        MenuDependencyGraph graph = menu.getDependencyGraph();
+        PlaceholderContext ctx = new PlaceholderContext(null);
+        ConditionContext condCtx = new ConditionContext(null, ctx, placeholderManager, conditionEvaluator);
+        BitSet dirty = new BitSet(menu.getSize());
+        
+        for (int i = 0; i < graph.getReferenceCount(); i++) {
+            PlaceholderReference reference = graph.getReference(i);
+            if (!shared.usesReference(i) || !isDue(reference.getVolatility(), shared.getPlaceholderTick(i), tick, force)) {
+                continue;
+            }
+            
+            if (shared.updatePlaceholderValue(i, placeholderManager.resolve(reference, ctx), tick)) {
+                for (int slot : graph.getSlots(i)) {
+                    dirty.set(slot);
+                }
+            }
+        }
+        
+        BitSet slots = shared.getSharedSlots();
+        for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+            if (isDue(graph.getSlotVolatility(slot), shared.getSlotTick(slot), tick, force)) {
+                shared.setSlotTick(slot, tick);
+                dirty.set(slot);
+            }
+            if (!dirty.get(slot) && shared.getFingerprint(slot) != null) {
+                continue;
+            }
+            
+            MenuItem shown = selectCandidate(menu, slot, condCtx);
+            SlotFingerprint inputs = shown == null ? SlotFingerprint.HIDDEN : resolveItem(shown, ctx);
+            if (inputs.equals(shared.getFingerprint(slot))) {
+                continue;
+            }
+            
+            // Shared slots have no skull owner, so building needs no player
+            ItemStack stack = inputs == SlotFingerprint.HIDDEN ? ItemStack.EMPTY : buildItem(inputs, ctx);
+            shared.setRendered(slot, stack, inputs);
+        }
+    }
+    
+    /**
+     * Show the shared stacks in a viewer's container.
+     * Every viewer gets the same stack instances, nothing is built per viewer.
+     *
+     * @return The number of slots that changed, written to changedSlots
+     */
+    private static int showShared(SharedMenuRender shared, MenuSession session, Container container, int[] changedSlots) {
+        int count = 0;
+        BitSet slots = shared.getSharedSlots();
+        for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+            ItemStack stack = shared.getStack(slot);
+            if (session.getRenderedItem(slot) != stack) {
+                container.setItem(slot, stack);
+                session.setRendered(slot, stack, shared.getFingerprint(slot));
+                changedSlots[count++] = slot;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Render the visible page of a menu's list.
+     * Only the entries on the page are read, so the cost does not depend on the
+     * length of the list, and only slots whose rendered inputs changed are rebuilt.
+     * A template showing nothing but entry values is only rendered where the
+     * page or the entry shown changed.
+     *
+     * @param changedSlots Receives the changed slots from changedCount on, or null
+     * @return The number of changed slots including those already in changedSlots
+     */
+    private int renderPage(MenuSession session, PlaceholderContext ctx, Container container,
+                           int[] changedSlots, int changedCount, long tick, boolean force) {
+        MenuPagination pagination = session.getMenu().getPagination();
+        BitSet changedEntries = session.getListState() != null
+                ? refreshList(session, pagination, ctx, tick, force) : null;
+        List<ListEntry> entries = session.getListEntries();
+        
+        // The list may have shrunk below the current page
+        int page = pagination.clampPage(session.getCurrentPage(), entries.size());
+        session.setCurrentPage(page);
+        boolean all = page != session.getRenderedPage() || !pagination.isEntryOnly() || force;
+        if (!all && (changedEntries == null || changedEntries.isEmpty())) {
+            return changedCount;
+        }
+        session.setRenderedPage(page);
+        
+        MenuItem template = pagination.getTemplate();
+        int[] slots = pagination.getSlots();
+        int first = page * slots.length;
+        for (int i = 0; i < slots.length; i++) {
+            int slot = slots[i];
+            int index = first + i;
+            if (!all && !changedEntries.get(index)) {
+                continue;
+            }
+            
+            SlotFingerprint inputs = index < entries.size()
+                    ? resolveItem(template, entryResolver(entries.get(index), index, ctx))
+                    : SlotFingerprint.HIDDEN;
+            if (inputs.equals(session.getFingerprint(slot))) {
+                continue;
+            }
+            
+            ItemStack stack = inputs == SlotFingerprint.HIDDEN ? ItemStack.EMPTY : buildItem(inputs, ctx);
+            container.setItem(slot, stack);
+            session.setRendered(slot, stack, inputs);
+            if (changedSlots != null) {
+                changedSlots[changedCount++] = slot;
+            }
+        }
+        return changedCount;
+    }
+    
+    /**
+     * Fetch a session's list from its provider if it is due, and match it against the shown entries.
+     *
+     * @return The positions whose entry was inserted, removed or changed, or null if not fetched
+     */
+    private BitSet refreshList(MenuSession session, MenuPagination pagination, PlaceholderContext ctx,
+                               long tick, boolean force) {
+        ListState list = session.getListState();
+        ListProvider provider = placeholderManager.getListProvider(pagination.getListId());
+        if (provider == null) {
+            return null;
+        }
+        String argument = pagination.getListArgument();
+        if (!isDue(provider.getVolatility(argument), list.getTick(), tick, force)) {
+            return null;
+        }
+        list.setTick(tick);
+        
+        List<ListEntry> fresh;
+        try {
+            fresh = provider.getEntries(argument, ctx);
+        } catch (Exception e) {
+            ActionMenus.LOGGER.error("Error listing {} for menu {}", pagination.getListId(), session.getMenuId(), e);
+            return null;
+        }
+        
+        int pages = session.getPageCount();
+        BitSet changed = list.reconcile(fresh);
+        if (session.getPageCount() != pages) {
+            // Refresh slots showing the page count
+            placeholderManager.markChanged(session.getPlayerId(), "session", null);
+        }
+        return changed;
+    }
+    
+    /**
+     * Resolve placeholders for a list entry: entry placeholders from the entry, the rest as usual.
+     */
+    private Function<PlaceholderReference, String> entryResolver(ListEntry entry, int index, PlaceholderContext ctx) {
+        return reference -> MenuPagination.isEntryReference(reference)
+                ? entry.resolve(reference.getParam(), index)
+                : placeholderManager.resolve(reference, ctx);
+    }
+    
+    /**
+     * Show another page of a player's paged menu.
+     * Pages past either end of the list are clamped to it.
+     *
+     * @return true if the page changed
+     */
+    public boolean setPage(ServerPlayer player, int page) {
+        MenuSession session = activeSessions.get(player.getUUID());
+        if (session == null || !session.getMenu().hasPagination()) {
+            return false;
+        }
+        
+        MenuPagination pagination = session.getMenu().getPagination();
+        int target = pagination.clampPage(page, session.getListEntries().size());
+        if (target == session.getCurrentPage()) {
+            return false;
+        }
+        session.setCurrentPage(target);
+        
+        // Refresh slots showing the page number, then push the new page right away
+        placeholderManager.markChanged(player.getUUID(), "session", null);
+        updateMenu(player, false);
+        return true;
+    }
+    
+    /**
+     * Start rendering an update off the server thread.
+     * Everything that must read live game state happens here: the player
+     * snapshot is pinned, placeholders that are not snapshot-safe are resolved
+     * and view requirements are checked. The rest runs in {@link #render}.
+     */
+    private void prepareRender(ServerPlayer player, MenuSession session, ChestMenu chestMenu, boolean force) {
+        // One render per session at a time, requests meanwhile run once it is applied
+        if (session.isRendering()) {
+            session.requestRender(force);
+            return;
+        }
+        force |= session.takeForceRender();
+        session.clearPendingUpdate();
+        
+        MenuDefinition menu = session.getMenu();
+        MenuDependencyGraph graph = menu.getDependencyGraph();
+        long tick = player.server.getTickCount();
+        PlaceholderContext ctx = new PlaceholderContext(player, session, session.getArguments(),
+                placeholderManager.getPlayerSnapshot(player));
+        ConditionContext condCtx = new ConditionContext(player, ctx, placeholderManager, conditionEvaluator);
+        RenderJob job = new RenderJob(player, session, chestMenu, ctx, tick);
+        SharedMenuRender shared = getSharedRender(menu);
+        
+        // Shared slots are rendered here, at most once per tick for all viewers,
+        // and so is the page of a list, which is a few slots however long the list
+        if (shared.hasSharedSlots() || menu.hasPagination()) {
+            int[] changedSlots = new int[menu.getSize()];
+            int changedCount = 0;
+            if (shared.hasSharedSlots()) {
+                refreshShared(menu, shared, tick, force);
+                changedCount = showShared(shared, session, chestMenu.getContainer(), changedSlots);
+            }
+            if (menu.hasPagination()) {
+                changedCount = renderPage(session, ctx, chestMenu.getContainer(), changedSlots, changedCount, tick, force);
+            }
+            if (changedCount > 0) {
+                sendSlotChanges(player, chestMenu, changedSlots, changedCount);
+            }
+        }
+        
+        // Resolve the due placeholders that are not snapshot-safe, leave the others to the worker
+        for (int i = 0; i < graph.getReferenceCount(); i++) {
+            PlaceholderReference reference = graph.getReference(i);
+            if (shared.isSharedOnly(i) || !isDue(reference.getVolatility(), session.getPlaceholderTick(i), tick, force)) {
+                continue;
+            }
+            
+            job.due.set(i);
+            if (placeholderManager.isSnapshotSafe(reference)) {
+                job.deferred.set(i);
+            } else {
+                job.values[i] = placeholderManager.resolve(reference, ctx);
+            }
+            for (int slot : graph.getSlots(i)) {
+                if (!shared.isShared(slot)) {
+                    job.slots.set(slot);
+                }
+            }
+            for (int slot : graph.getSelectingSlots(i)) {
+                session.markSelectionDirty(slot);
+            }
+        }
+        
+        for (int slot = 0; slot < menu.getSize(); slot++) {
+            MenuItem item = menu.getItem(slot);
+            if (item == null || item.isStatic() || shared.isShared(slot)) {
+                continue;
+            }
+            
+            if (isDue(graph.getSlotVolatility(slot), session.getSlotTick(slot), tick, force)) {
+                session.setSlotTick(slot, tick);
+                session.markSelectionDirty(slot);
+                job.slots.set(slot);
+            }
+            boolean reselect = session.takeSelectionDirty(slot);
+            SlotFingerprint previous = session.getFingerprint(slot);
+            if (session.takeSlotDirty(slot) || previous == null) {
+                job.slots.set(slot);
+            }
+            if (!job.slots.get(slot)) {
+                continue;
+            }
+            
+            // Slots whose placeholders turn out unchanged are dropped by the worker's diff
+            job.previous[slot] = previous;
+            job.shown[slot] = reselect || previous == null ? selectCandidate(menu, slot, condCtx) : previous.getItem();
+        }
+        
+        if (job.slots.isEmpty()) {
+            session.setLastUpdateTick(tick);
+            return;
+        }
+        
+        session.setRendering(true);
+        renderPipeline.submit(() -> render(job), () -> player.server.execute(() -> applyRender(job)));
+    }
+    
+    /**
+     * Worker part of an off-thread update: resolve the snapshot-safe placeholders
+     * and build the slots whose inputs changed.
+     */
+    private void render(RenderJob job) {
+        MenuDefinition menu = job.session.getMenu();
+        MenuDependencyGraph graph = menu.getDependencyGraph();
+        
+        for (int i = job.deferred.nextSetBit(0); i >= 0; i = job.deferred.nextSetBit(i + 1)) {
+            job.values[i] = placeholderManager.resolve(graph.getReference(i), job.ctx);
+        }
+        
+        // Every placeholder of a slot is in the graph, so templates render from the values alone
+        Function<PlaceholderReference, String> resolver = reference -> {
+            int index = graph.indexOf(reference);
+            return index >= 0 ? job.values[index] : placeholderManager.resolve(reference, job.ctx);
+        };
+        
+        for (int slot = job.slots.nextSetBit(0); slot >= 0; slot = job.slots.nextSetBit(slot + 1)) {
+            MenuItem shown = job.shown[slot];
+            SlotFingerprint inputs = shown == null ? SlotFingerprint.HIDDEN : resolveItem(shown, resolver);
+            if (inputs.equals(job.previous[slot])) {
+                continue;
+            }
+            
+            ItemStack stack = inputs == SlotFingerprint.HIDDEN ? ItemStack.EMPTY : buildItem(inputs, job.ctx);
+            job.addChange(slot, stack, inputs);
+        }
+        job.completed = true;
+    }
+    
+    /**
+     * Apply an off-thread update on the server thread: record the resolved
+     * values, write the changed slots and send them.
+     */
+    private void applyRender(RenderJob job) {
+        MenuSession session = job.session;
+        session.setRendering(false);
+        
+        // Drop renders for menus closed or replaced meanwhile, and failed ones,
+        // whose placeholders stay due and are retried
+        if (job.completed && isActive(session) && job.player.containerMenu == job.menu) {
+            // Placeholders marked changed during the render stay due for the next one
+            boolean changed = session.getChangeCount() != job.changeCount;
+            for (int i = job.due.nextSetBit(0); i >= 0; i = job.due.nextSetBit(i + 1)) {
+                long tick = changed && session.getPlaceholderTick(i) < 0 ? -1 : job.tick;
+                session.updatePlaceholderValue(i, job.values[i], tick);
+            }
+            
+            for (int i = 0; i < job.changedCount; i++) {
+                int slot = job.changedSlots[i];
+                job.menu.getContainer().setItem(slot, job.stacks[i]);
+                session.setRendered(slot, job.stacks[i], job.fingerprints[i]);
+            }
+            if (job.changedCount > 0) {
+                sendSlotChanges(job.player, job.menu, job.changedSlots, job.changedCount);
+            }
+            session.setLastUpdateTick(job.player.server.getTickCount());
+        }
+        
+        if (session.hasPendingUpdate() && updateScheduler != null && isActive(session)) {
+            updateScheduler.requestUpdate(session);
+        }
+    }
+    
+    /**
+     * State of one off-thread update, handed from the server thread to a
+     * worker and back. Each side only touches it while the other is not.
+     */
+    private static final class RenderJob {
+        final ServerPlayer player;
+        final MenuSession session;
+        final ChestMenu menu;
+        final PlaceholderContext ctx;
+        final long tick;
+        final int changeCount;
+        
+        // Placeholder values by graph index: the last ones, overwritten by those resolved now
+        final String[] values;
+        // Placeholders resolved now, and those of them left to the worker
+        final BitSet due = new BitSet();
+        final BitSet deferred = new BitSet();
+        
+        // Slots to diff, with their last inputs and the candidate they show, null if hidden
+        final BitSet slots = new BitSet();
+        final SlotFingerprint[] previous;
+        final MenuItem[] shown;
+        
+        // Slots whose stack changed, filled by the worker
+        int[] changedSlots;
+        ItemStack[] stacks;
+        SlotFingerprint[] fingerprints;
+        int changedCount;
+        volatile boolean completed;
+        
+        RenderJob(ServerPlayer player, MenuSession session, ChestMenu menu, PlaceholderContext ctx, long tick) {
+            this.player = player;
+            this.session = session;
+            this.menu = menu;
+            this.ctx = ctx;
+            this.tick = tick;
+            this.changeCount = session.getChangeCount();
+            this.values = session.copyPlaceholderValues();
+            this.previous = new SlotFingerprint[session.getMenu().getSize()];
+            this.shown = new MenuItem[session.getMenu().getSize()];
+        }
+        
+        void addChange(int slot, ItemStack stack, SlotFingerprint inputs) {
+            if (changedSlots == null) {
+                int size = previous.length;
+                changedSlots = new int[size];
+                stacks = new ItemStack[size];
+                fingerprints = new SlotFingerprint[size];
+            }
+            changedSlots[changedCount] = slot;
+            stacks[changedCount] = stack;
+            fingerprints[changedCount] = inputs;
+            changedCount++;
+        }
+    }
+    
+    /**
+     * Send the changed slots to the client.
+     * A few changes are sent as single slot packets, many as one full content packet.
+     * Both go through the menu's state id and remote slots, so the vanilla
+     * change detection neither resends them nor sees a desync.
+     */
+    private static void sendSlotChanges(ServerPlayer player, ChestMenu menu, int[] slots, int count) {
+        if (count > FULL_SYNC_THRESHOLD) {
+            menu.sendAllDataToRemote();
+            return;
+        }
+        
+        for (int i = 0; i < count; i++) {
+            int slot = slots[i];
+            ItemStack stack = menu.getSlot(slot).getItem();
+            menu.setRemoteSlot(slot, stack);
+            player.connection.send(new ClientboundContainerSetSlotPacket(
+                    menu.containerId, menu.incrementStateId(), slot, stack));
+        }
+    }
+    
+    /**
+     * Mark placeholders changed by a game event in the affected open menus.
+     * The scheduler updates those menus on the next tick.
+     */
+    @Override
+    public void onPlaceholdersChanged(UUID playerId, Predicate<PlaceholderReference> changed) {
+        if (playerId != null) {
+            MenuSession session = activeSessions.get(playerId);
+            if (session != null) {
+                markChanged(session, changed);
+            }
+            return;
+        }
+        
+        for (MenuSession session : activeSessions.values()) {
+            markChanged(session, changed);
+        }
+    }
+    
+    /**
+     * Mark a list changed by a game event in the open menus showing it.
+     * The scheduler updates those menus on the next tick.
+     */
+    @Override
+    public void onListChanged(UUID playerId, String identifier) {
+        if (playerId != null) {
+            MenuSession session = activeSessions.get(playerId);
+            if (session != null) {
+                markListChanged(session, identifier);
+            }
+            return;
+        }
+        
+        for (MenuSession session : activeSessions.values()) {
+            markListChanged(session, identifier);
+        }
+    }
+    
+    private void markListChanged(MenuSession session, String identifier) {
+        MenuPagination pagination = session.getMenu().getPagination();
+        if (session.getListState() == null || !pagination.getListId().equalsIgnoreCase(identifier)) {
+            return;
+        }
+        
+        boolean wasPending = session.hasPendingUpdate();
+        session.markListDirty();
+        if (!wasPending && updateScheduler != null) {
+            updateScheduler.requestUpdate(session);
+        }
+    }
+    
+    private void markChanged(MenuSession session, Predicate<PlaceholderReference> changed) {
+        boolean wasPending = session.hasPendingUpdate();
+        MenuDependencyGraph graph = session.getMenu().getDependencyGraph();
+        SharedMenuRender shared = session.getMenu().getSharedRender();
+        for (int i = 0; i < graph.getReferenceCount(); i++) {
+            if (changed.test(graph.getReference(i))) {
+                session.markPlaceholderDirty(i);
+                if (shared != null && shared.usesReference(i)) {
+                    shared.markPlaceholderDirty(i);
+                }
+            }
+        }
+        
+        if (!wasPending && session.hasPendingUpdate() && updateScheduler != null) {
+            updateScheduler.requestUpdate(session);
+        }
+    }
+    
+    /**
+     * Check if an input last checked at lastTick should be checked again.
+     */
+    private static boolean isDue(PlaceholderVolatility volatility, long lastTick, long tick, boolean force) {
+        if (force) {
+            return lastTick < 0 || !volatility.isStable();
+        }
+        return MenuDependencyGraph.isDue(volatility, lastTick, tick);
+    }
+    
+    /**
+     * Record the inputs of a freshly populated menu so later updates
+     * can tell which of them changed.
+     */
+    private void recordDependencies(MenuSession session, SharedMenuRender shared, PlaceholderContext ctx, long tick) {
+        MenuDependencyGraph graph = session.getMenu().getDependencyGraph();
+        for (int i = 0; i < graph.getReferenceCount(); i++) {
+            if (shared.isSharedOnly(i)) {
+                continue;
+            }
+            session.updatePlaceholderValue(i, placeholderManager.resolve(graph.getReference(i), ctx), tick);
+        }
+        for (int slot = 0; slot < session.getMenu().getSize(); slot++) {
+            session.setSlotTick(slot, tick);
+        }
+    }
+    
     /**
      * Handle a click on a menu.
      */
@@ -327,22 +1091,38 @@ public class MenuManager {
         if (session == null) {
             return;
         }
+        session.setLastInteractionTick(player.server.getTickCount());
         
         MenuDefinition menu = session.getMenu();
         if (slot < 0 || slot >= menu.getSize()) {
             return;
         }
         
-        MenuItem item = menu.getItem(slot);
+        // The candidate the slot shows, static slots have a single one
+        SlotFingerprint shown = session.getFingerprint(slot);
+        MenuItem item = shown != null ? shown.getItem() : menu.getItem(slot);
         if (item == null) {
             return;
         }
         
+        // Actions of a list entry read its values through the entry placeholders
+        MenuPagination pagination = menu.getPagination();
+        boolean entrySlot = pagination != null && pagination.isPageSlot(slot);
+        if (entrySlot) {
+            int index = session.getRenderedPage() * pagination.getPageSize() + pagination.getPosition(slot);
+            List<ListEntry> entries = session.getListEntries();
+            if (index >= entries.size()) {
+                return;
+            }
+            session.setSelectedEntry(entries.get(index), index);
+            placeholderManager.markChanged(player.getUUID(), MenuPagination.ENTRY_CATEGORY, null);
+        }
+        
         // Check view requirement (item might have become hidden)
         PlaceholderContext ctx = new PlaceholderContext(player, session, session.getArguments());
         ConditionContext condCtx = new ConditionContext(player, ctx, placeholderManager, conditionEvaluator);
         
-        if (item.hasViewRequirement() && !conditionEvaluator.evaluate(item.getViewRequirement(), condCtx)) {
+        if (!entrySlot && item.hasViewRequirement() && !conditionEvaluator.evaluate(item.getViewRequirement(), condCtx)) {
             return;
         }
         
@@ -390,11 +1170,30 @@ public class MenuManager {
      * Close a player's menu.
      */
     public void closeMenu(ServerPlayer player) {
-        MenuSession session = activeSessions.remove(player.getUUID());
+        MenuSession session = endSession(player);
         if (session == null) {
             return;
         }
         
+        // Close the actual container
+        if (player.containerMenu != player.inventoryMenu) {
+            player.closeContainer();
+        }
+        
+        ActionMenus.LOGGER.debug("Closed menu {} for player {}", session.getMenu().getId(), player.getName().getString());
+    }
+    
+    /**
+     * End a player's session and run its close actions, leaving the container open.
+     *
+     * @return The ended session, or null if the player had none
+     */
+    private MenuSession endSession(ServerPlayer player) {
+        MenuSession session = activeSessions.remove(player.getUUID());
+        if (session == null) {
+            return null;
+        }
+        
         // Execute close actions
         MenuDefinition menu = session.getMenu();
         if (!menu.getCloseActions().isEmpty()) {
@@ -403,13 +1202,7 @@ public class MenuManager {
                 actionExecutor.execute(action, actionCtx);
             }
         }
-        
-        // Close the actual container
-        if (player.containerMenu != player.inventoryMenu) {
-            player.closeContainer();
-        }
-        
-        ActionMenus.LOGGER.debug("Closed menu {} for player {}", menu.getId(), player.getName().getString());
+        return session;
     }
     
     /**
@@ -441,6 +1234,31 @@ public class MenuManager {
         return activeSessions.containsKey(player.getUUID());
     }
     
+    /**
+     * Check if a session is still the open menu of its player.
+     */
+    public boolean isActive(MenuSession session) {
+        return activeSessions.get(session.getPlayerId()) == session;
+    }
+    
+    public void setUpdateScheduler(MenuUpdateScheduler updateScheduler) {
+        this.updateScheduler = updateScheduler;
+    }
+    
+    /**
+     * Set whether opening a menu of the same size as the open one reuses its container.
+     */
+    public void setInPlaceNavigation(boolean inPlaceNavigation) {
+        this.inPlaceNavigation = inPlaceNavigation;
+    }
+    
+    /**
+     * Get the worker threads for off-thread rendering.
+     */
+    public MenuRenderPipeline getRenderPipeline() {
+        return renderPipeline;
+    }
+    
     /**
      * Get all active sessions.
      */
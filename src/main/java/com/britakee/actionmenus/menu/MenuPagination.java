@@ -0,0 +1,188 @@
+package com.britakee.actionmenus.menu;
+
+import com.britakee.actionmenus.placeholder.PlaceholderReference;
+import com.britakee.actionmenus.placeholder.PlaceholderTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A list of entries shown page by page in a menu.
+ *
+ * The layout marks the slots entries fill, in order, and each entry is shown
+ * as the template item with its values in the %entry_<field>% placeholders.
+ * A page only reads the entries it shows, so opening a menu and flipping
+ * pages costs the same for ten entries as for ten thousand.
+ *
+ * Entries are either fixed in the menu config or fetched from a
+ * {@link com.britakee.actionmenus.placeholder.ListProvider}, in which case
+ * each session keeps its own copy and updates it by key.
+ *
+ * The template's display name, lore, skull owner and click actions are used,
+ * its view requirement is not.
+ */
+public class MenuPagination {
+    
+    /** Placeholder category of entry values, e.g. %entry_name% */
+    public static final String ENTRY_CATEGORY = "entry";
+    
+    private final int[] slots;
+    private final int[] positions;
+    private final MenuItem template;
+    private final List<ListEntry> entries;
+    
+    // List provider and its argument, null for fixed entries
+    private final String listId;
+    private final String listArgument;
+    
+    // Set when the template only shows entry values, so a page only changes when flipped
+    private final boolean entryOnly;
+    
+    /**
+     * @param slots The slots entries fill, in order
+     * @param size The menu size, slots outside it are dropped
+     * @param template The item each entry is shown as
+     * @param entries The entries, a random access list
+     */
+    public MenuPagination(int[] slots, int size, MenuItem template, List<ListEntry> entries) {
+        this(slots, size, template, entries, null, null);
+    }
+    
+    /**
+     * @param slots The slots entries fill, in order
+     * @param size The menu size, slots outside it are dropped
+     * @param template The item each entry is shown as
+     * @param listId The list provider the entries come from
+     * @param listArgument The argument passed to the list provider, empty if none
+     */
+    public MenuPagination(int[] slots, int size, MenuItem template, String listId, String listArgument) {
+        this(slots, size, template, List.of(), listId, listArgument);
+    }
+    
+    private MenuPagination(int[] slots, int size, MenuItem template, List<ListEntry> entries,
+                           String listId, String listArgument) {
+        this.positions = new int[size];
+        Arrays.fill(positions, -1);
+        
+        int[] valid = new int[slots.length];
+        int count = 0;
+        for (int slot : slots) {
+            if (slot >= 0 && slot < size && positions[slot] < 0) {
+                positions[slot] = count;
+                valid[count++] = slot;
+            }
+        }
+        this.slots = Arrays.copyOf(valid, count);
+        this.template = template;
+        this.entries = List.copyOf(entries);
+        this.listId = listId;
+        this.listArgument = listArgument;
+        this.entryOnly = readsOnlyEntries(template);
+    }
+    
+    private static boolean readsOnlyEntries(MenuItem item) {
+        List<PlaceholderTemplate> templates = new ArrayList<>();
+        if (item.getDisplayNameTemplate() != null) {
+            templates.add(item.getDisplayNameTemplate());
+        }
+        if (item.getLoreTemplates() != null) {
+            templates.addAll(item.getLoreTemplates());
+        }
+        if (item.getSkullOwnerTemplate() != null) {
+            templates.add(item.getSkullOwnerTemplate());
+        }
+        
+        for (PlaceholderTemplate template : templates) {
+            for (PlaceholderReference reference : template.getReferences()) {
+                if (!isEntryReference(reference)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Check if a placeholder reads the value of the entry being rendered.
+     */
+    public static boolean isEntryReference(PlaceholderReference reference) {
+        return ENTRY_CATEGORY.equals(reference.getCategory());
+    }
+    
+    /**
+     * Get the slots entries fill, in order.
+     */
+    public int[] getSlots() {
+        return slots;
+    }
+    
+    /**
+     * Get the number of entries on a page.
+     */
+    public int getPageSize() {
+        return slots.length;
+    }
+    
+    public boolean isPageSlot(int slot) {
+        return slot >= 0 && slot < positions.length && positions[slot] >= 0;
+    }
+    
+    /**
+     * Get the position of a slot within a page, or -1 if entries don't fill it.
+     */
+    public int getPosition(int slot) {
+        return isPageSlot(slot) ? positions[slot] : -1;
+    }
+    
+    public MenuItem getTemplate() {
+        return template;
+    }
+    
+    /**
+     * Get the fixed entries, empty for lists from a list provider.
+     * Sessions hold the entries they show, see {@link MenuSession#getListEntries()}.
+     */
+    public List<ListEntry> getEntries() {
+        return entries;
+    }
+    
+    /**
+     * Check if the entries come from a list provider.
+     */
+    public boolean hasListProvider() {
+        return listId != null;
+    }
+    
+    public String getListId() {
+        return listId;
+    }
+    
+    public String getListArgument() {
+        return listArgument;
+    }
+    
+    /**
+     * Check if the template shows nothing but entry values.
+     */
+    public boolean isEntryOnly() {
+        return entryOnly;
+    }
+    
+    /**
+     * Get the number of pages a list fills, at least one.
+     */
+    public int getPageCount(int entryCount) {
+        if (slots.length == 0 || entryCount <= 0) {
+            return 1;
+        }
+        return (entryCount + slots.length - 1) / slots.length;
+    }
+    
+    /**
+     * Bring a page number within the pages a list fills.
+     */
+    public int clampPage(int page, int entryCount) {
+        return Math.max(0, Math.min(page, getPageCount(entryCount) - 1));
+    }
+}
@@ -0,0 +1,119 @@
+package com.britakee.actionmenus.menu;
+
+import com.britakee.actionmenus.ActionMenus;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Worker threads that render menu refreshes off the server thread.
+ *
+ * The server thread prepares each render: it pins the player's snapshot,
+ * resolves the placeholders that are not snapshot-safe and checks view
+ * requirements. A worker then resolves the remaining placeholders, builds the
+ * changed stacks and diffs them against the last render. The results are
+ * applied on the server thread, which only writes the slots and sends packets.
+ *
+ * Disabled by default, in which case menus render on the server thread.
+ */
+public class MenuRenderPipeline {
+    
+    public static final int DEFAULT_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+    
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+    
+    private volatile boolean enabled = false;
+    private volatile ExecutorService executor;
+    private int threads = 0;
+    
+    // Statistics
+    private final AtomicLong renders = new AtomicLong();
+    private final AtomicLong workerNanos = new AtomicLong();
+    
+    /**
+     * Enable or disable off-thread rendering.
+     *
+     * @param threads Number of worker threads
+     */
+    public synchronized void configure(boolean enabled, int threads) {
+        threads = Math.max(1, threads);
+        this.enabled = enabled;
+        
+        if (!enabled || threads != this.threads) {
+            // Renders already submitted still finish and apply
+            if (executor != null) {
+                executor.shutdown();
+                executor = null;
+            }
+            this.threads = 0;
+        }
+        if (enabled && executor == null) {
+            executor = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "ActionMenus Render #" + THREAD_COUNTER.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.threads = threads;
+        }
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public synchronized int getThreads() {
+        return threads;
+    }
+    
+    /**
+     * Run a render on a worker thread.
+     *
+     * @param render The worker part of the render
+     * @param apply Run afterwards, also when the render failed or could not be submitted
+     */
+    void submit(Runnable render, Runnable apply) {
+        ExecutorService current = executor;
+        if (current == null) {
+            apply.run();
+            return;
+        }
+        
+        try {
+            current.execute(() -> {
+                long start = System.nanoTime();
+                try {
+                    render.run();
+                } catch (Exception e) {
+                    ActionMenus.LOGGER.error("Error rendering menu off the server thread", e);
+                } finally {
+                    workerNanos.addAndGet(System.nanoTime() - start);
+                    renders.incrementAndGet();
+                    apply.run();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Reconfigured while submitting
+            apply.run();
+        }
+    }
+    
+    public long getRenders() {
+        return renders.get();
+    }
+    
+    /**
+     * Get the mean time a render spent on a worker thread, in microseconds.
+     */
+    public double getMeanWorkerMicros() {
+        long count = renders.get();
+        return count == 0 ? 0 : workerNanos.get() / 1000.0 / count;
+    }
+    
+    public void resetStats() {
+        renders.set(0);
+        workerNanos.set(0);
+    }
+}
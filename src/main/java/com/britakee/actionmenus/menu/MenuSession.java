@@ -1,11 +1,18 @@
 package com.britakee.actionmenus.menu;
 
+import com.britakee.actionmenus.placeholder.PlaceholderReference;
+import net.minecraft.network.chat.Component;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.item.ItemStack;
 
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Represents an active menu session for a player.
@@ -20,20 +27,79 @@ public class MenuSession {
     
     // Session state
     private int currentPage = 0;
+    // Page shown in the container, -1 before the list is first rendered
+    private int renderedPage = -1;
+    // List entry last clicked, read by the %entry_<field>% placeholders of actions
+    private ListEntry selectedEntry;
+    private int selectedIndex = -1;
+    // Entries shown from a list provider, null for menus without one
+    private final ListState listState;
     private String[] arguments;
     private Map<String, Object> data = new HashMap<>();
+    // Title the container was opened with
+    private Component title;
     
-    // Cached rendered items (for comparison during updates)
-    private Map<Integer, ItemStack> cachedItems = new HashMap<>();
+    // Placeholder values that cannot change during this session
+    private final Map<PlaceholderReference, String> foldedPlaceholders = new ConcurrentHashMap<>();
+    
+    // Last resolved value and check tick of each placeholder in the menu's dependency graph
+    private final String[] placeholderValues;
+    private final long[] placeholderTicks;
+    
+    // Last check tick of each slot's inputs that are not placeholders
+    private final long[] slotTicks;
+    
+    // Render state by slot: the stack shown, the inputs it was built from,
+    // and whether the slot needs re-rendering
+    private final ItemStack[] renderedItems;
+    private final SlotFingerprint[] fingerprints;
+    private final BitSet dirtySlots;
+    
+    // Slots whose view requirement inputs changed, so the shown candidate is picked again
+    private final BitSet selectionDirty;
+    
+    // Set when a game event changed a placeholder shown in this menu
+    private volatile boolean pendingUpdate;
+    
+    // Counts placeholder changes, so a render can tell if one arrived meanwhile
+    private volatile int changeCount;
+    
+    // Set while a render runs off the server thread, and when a forced
+    // update has to wait for it
+    private boolean rendering;
+    private boolean forceRender;
     
     // Last update tick
     private long lastUpdateTick = 0;
     
+    // Tick of the player's last click in this menu, or of the opening
+    private long lastInteractionTick = 0;
+    
+    // Scheduler state: tick of the next timed refresh, whether it is filed in the
+    // timing wheel, and whether it waits in the update queue
+    private long nextUpdateTick = -1;
+    private boolean scheduled;
+    private boolean queued;
+    
     public MenuSession(ServerPlayer player, MenuDefinition menu) {
         this.playerId = player.getUUID();
         this.playerName = player.getName().getString();
         this.menu = menu;
         this.openedAt = System.currentTimeMillis();
+        
+        int referenceCount = menu.getDependencyGraph().getReferenceCount();
+        this.placeholderValues = new String[referenceCount];
+        this.placeholderTicks = new long[referenceCount];
+        this.slotTicks = new long[menu.getSize()];
+        this.renderedItems = new ItemStack[menu.getSize()];
+        this.fingerprints = new SlotFingerprint[menu.getSize()];
+        this.dirtySlots = new BitSet(menu.getSize());
+        this.selectionDirty = new BitSet(menu.getSize());
+        Arrays.fill(placeholderTicks, -1);
+        Arrays.fill(slotTicks, -1);
+        
+        MenuPagination pagination = menu.getPagination();
+        this.listState = pagination != null && pagination.hasListProvider() ? new ListState() : null;
     }
     
     public MenuSession(ServerPlayer player, MenuDefinition menu, String[] arguments) {
@@ -83,6 +149,67 @@ public class MenuSession {
         this.currentPage = Math.max(0, currentPage - 1);
     }
     
+    /**
+     * Get the entries of the menu's list as this session shows them.
+     */
+    public List<ListEntry> getListEntries() {
+        if (listState != null) {
+            return listState.getEntries();
+        }
+        MenuPagination pagination = menu.getPagination();
+        return pagination != null ? pagination.getEntries() : List.of();
+    }
+    
+    /**
+     * Get the number of pages of the menu's list, at least one.
+     */
+    public int getPageCount() {
+        MenuPagination pagination = menu.getPagination();
+        return pagination != null ? pagination.getPageCount(getListEntries().size()) : 1;
+    }
+    
+    ListState getListState() {
+        return listState;
+    }
+    
+    /**
+     * Mark the list as changed so the next update fetches it again.
+     */
+    void markListDirty() {
+        if (listState != null) {
+            listState.markDirty();
+            changeCount++;
+            pendingUpdate = true;
+        }
+    }
+    
+    int getRenderedPage() {
+        return renderedPage;
+    }
+    
+    void setRenderedPage(int page) {
+        this.renderedPage = page;
+    }
+    
+    /**
+     * Get the list entry the player last clicked, or null if none.
+     */
+    public ListEntry getSelectedEntry() {
+        return selectedEntry;
+    }
+    
+    /**
+     * Get the position of the selected entry in its list, or -1 if none.
+     */
+    public int getSelectedIndex() {
+        return selectedIndex;
+    }
+    
+    public void setSelectedEntry(ListEntry entry, int index) {
+        this.selectedEntry = entry;
+        this.selectedIndex = entry != null ? index : -1;
+    }
+    
     // Arguments
     public String[] getArguments() {
         return arguments;
@@ -90,6 +217,8 @@ public class MenuSession {
     
     public void setArguments(String[] arguments) {
         this.arguments = arguments;
+        // Argument placeholders were folded with the old values
+        this.foldedPlaceholders.clear();
     }
     
     public String getArgument(int index) {
@@ -136,21 +265,144 @@ public class MenuSession {
         data.remove(key);
     }
     
-    // Cached items for smart updates
-    public Map<Integer, ItemStack> getCachedItems() {
-        return cachedItems;
+    // Folded placeholder values
+    public String getFoldedPlaceholder(PlaceholderReference reference) {
+        return foldedPlaceholders.get(reference);
+    }
+    
+    public void foldPlaceholder(PlaceholderReference reference, String value) {
+        foldedPlaceholders.put(reference, value);
+    }
+    
+    // Dependency tracking for incremental updates
+    public long getPlaceholderTick(int index) {
+        return placeholderTicks[index];
+    }
+    
+    /**
+     * Record a resolved placeholder value.
+     * 
+     * @return true if the value differs from the previous one
+     */
+    public boolean updatePlaceholderValue(int index, String value, long tick) {
+        placeholderTicks[index] = tick;
+        if (Objects.equals(placeholderValues[index], value)) {
+            return false;
+        }
+        placeholderValues[index] = value;
+        return true;
+    }
+    
+    /**
+     * Mark a placeholder as changed so the next update re-resolves it.
+     */
+    public void markPlaceholderDirty(int index) {
+        placeholderTicks[index] = -1;
+        changeCount++;
+        pendingUpdate = true;
+    }
+    
+    /**
+     * Copy the last resolved placeholder values, in dependency graph order.
+     */
+    public String[] copyPlaceholderValues() {
+        return placeholderValues.clone();
+    }
+    
+    int getChangeCount() {
+        return changeCount;
+    }
+    
+    public boolean hasPendingUpdate() {
+        return pendingUpdate;
     }
     
-    public void setCachedItems(Map<Integer, ItemStack> items) {
-        this.cachedItems = new HashMap<>(items);
+    public void clearPendingUpdate() {
+        pendingUpdate = false;
     }
     
-    public void setCachedItem(int slot, ItemStack item) {
-        this.cachedItems.put(slot, item.copy());
+    public long getSlotTick(int slot) {
+        return slotTicks[slot];
     }
     
-    public ItemStack getCachedItem(int slot) {
-        return cachedItems.get(slot);
+    public void setSlotTick(int slot, long tick) {
+        slotTicks[slot] = tick;
+    }
+    
+    // Render state
+    SlotFingerprint getFingerprint(int slot) {
+        return fingerprints[slot];
+    }
+    
+    /**
+     * Get the stack shown in a slot, or null if the slot was never rendered.
+     * The stack is the one placed in the container and must not be modified.
+     */
+    public ItemStack getRenderedItem(int slot) {
+        return renderedItems[slot];
+    }
+    
+    /**
+     * Record what a slot shows and the inputs it was built from.
+     */
+    void setRendered(int slot, ItemStack stack, SlotFingerprint fingerprint) {
+        renderedItems[slot] = stack;
+        fingerprints[slot] = fingerprint;
+    }
+    
+    public void markSlotDirty(int slot) {
+        dirtySlots.set(slot);
+    }
+    
+    /**
+     * Check if a slot was marked dirty, clearing the mark.
+     */
+    public boolean takeSlotDirty(int slot) {
+        boolean dirty = dirtySlots.get(slot);
+        if (dirty) {
+            dirtySlots.clear(slot);
+        }
+        return dirty;
+    }
+    
+    boolean isRendering() {
+        return rendering;
+    }
+    
+    void setRendering(boolean rendering) {
+        this.rendering = rendering;
+    }
+    
+    /**
+     * Request another update once the render in flight is applied.
+     */
+    void requestRender(boolean force) {
+        forceRender |= force;
+        pendingUpdate = true;
+    }
+    
+    /**
+     * Check if a forced update waited for a render, clearing the request.
+     */
+    boolean takeForceRender() {
+        boolean force = forceRender;
+        forceRender = false;
+        return force;
+    }
+    
+    void markSelectionDirty(int slot) {
+        selectionDirty.set(slot);
+    }
+    
+    /**
+     * Check if a slot's shown candidate must be picked again, clearing the mark.
+     */
+    boolean takeSelectionDirty(int slot) {
+        boolean dirty = selectionDirty.get(slot);
+        if (dirty) {
+            selectionDirty.clear(slot);
+        }
+        return dirty;
     }
     
     // Update tracking
@@ -162,10 +414,50 @@ public class MenuSession {
         this.lastUpdateTick = tick;
     }
     
+    Component getTitle() {
+        return title;
+    }
+    
+    void setTitle(Component title) {
+        this.title = title;
+    }
+    
+    public long getLastInteractionTick() {
+        return lastInteractionTick;
+    }
+    
+    public void setLastInteractionTick(long tick) {
+        this.lastInteractionTick = tick;
+    }
+    
     public boolean shouldUpdate(long currentTick) {
         return currentTick - lastUpdateTick >= menu.getUpdateInterval();
     }
     
+    long getNextUpdateTick() {
+        return nextUpdateTick;
+    }
+    
+    void setNextUpdateTick(long tick) {
+        this.nextUpdateTick = tick;
+    }
+    
+    boolean isScheduled() {
+        return scheduled;
+    }
+    
+    void setScheduled(boolean scheduled) {
+        this.scheduled = scheduled;
+    }
+    
+    boolean isQueued() {
+        return queued;
+    }
+    
+    void setQueued(boolean queued) {
+        this.queued = queued;
+    }
+    
     @Override
     public String toString() {
         return "MenuSession{" +
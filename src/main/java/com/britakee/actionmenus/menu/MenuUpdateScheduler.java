@@ -1,67 +1,383 @@
 package com.britakee.actionmenus.menu;
 
 import com.britakee.actionmenus.ActionMenus;
+import com.britakee.actionmenus.placeholder.ServerMetricsSampler;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerPlayer;
 import net.neoforged.bus.api.SubscribeEvent;
 import net.neoforged.neoforge.event.tick.ServerTickEvent;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
 /**
  * Scheduler that handles automatic menu updates.
- * Runs every tick and updates menus that need refreshing.
+ * Updates menus whose update interval passed and menus where a game event
+ * changed one of their placeholders.
+ *
+ * Timed refreshes are kept in a timing wheel keyed by their due tick, so a tick
+ * only touches the sessions that are due rather than every open menu.
+ * Sessions due further ahead than the wheel spans are filed again when their
+ * bucket comes around. The server tick counter is the only clock.
+ *
+ * Sessions are spread over phases within their interval, so menus opened
+ * in the same tick don't all refresh in the same later tick. Updates run
+ * within a per-tick time budget; due sessions left over when it runs out
+ * are carried over and updated first on the next tick.
+ *
+ * With adaptive throttling, intervals are stretched in doubling steps while the
+ * server's mean tick time is over its target, and relaxed step by step once it
+ * stays well below the target. Menus the player clicked recently are stretched
+ * half as much.
  */
 public class MenuUpdateScheduler {
     
+    public static final double DEFAULT_BUDGET_MS = 5.0;
+    public static final double DEFAULT_TARGET_MSPT = 40.0;
+    public static final int DEFAULT_MAX_MULTIPLIER = 8;
+    
+    // Tick time below this share of the target counts as recovered
+    private static final double RELAX_RATIO = 0.8;
+    // Ticks between steps up, one window of the sampled tick times
+    private static final int STEP_UP_DELAY = 100;
+    // Ticks the server must stay recovered before each step down
+    private static final int STEP_DOWN_DELAY = 200;
+    // Ticks a click keeps a menu prioritized
+    private static final int RECENT_INTERACTION_TICKS = 200;
+    
+    // Number of wheel buckets, a power of two covering 12.8 seconds
+    private static final int WHEEL_SIZE = 256;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    
     private final MenuManager menuManager;
-    private long currentTick = 0;
+    private final ServerMetricsSampler metrics;
+    
+    // Sessions filed under the tick they are due, modulo the wheel size
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private final List<MenuSession>[] wheel = new List[WHEEL_SIZE];
+    private List<MenuSession> spare = new ArrayList<>();
+    
+    // Last tick whose bucket was processed, -1 before the first tick
+    private long currentTick = -1;
+    
+    // Due sessions in the order they became due, carried over between ticks
+    private final ArrayDeque<MenuSession> queue = new ArrayDeque<>();
+    
+    // Sessions changed by game events, which may fire on any thread
+    private final Queue<MenuSession> requests = new ConcurrentLinkedQueue<>();
     
-    public MenuUpdateScheduler(MenuManager menuManager) {
+    // Assigns phases round-robin so sessions spread evenly over their interval
+    private int nextPhase = 0;
+    
+    private volatile long budgetNanos = toNanos(DEFAULT_BUDGET_MS);
+    
+    // Adaptive throttling settings and state
+    private volatile boolean adaptive = true;
+    private volatile double targetMspt = DEFAULT_TARGET_MSPT;
+    private volatile int maxMultiplier = DEFAULT_MAX_MULTIPLIER;
+    private volatile int multiplier = 1;
+    private long lastStepTick = 0;
+    private long recoveredSince = -1;
+    
+    // Statistics
+    private long updates = 0;
+    private long deferrals = 0;
+    private long budgetOverruns = 0;
+    
+    public MenuUpdateScheduler(MenuManager menuManager, ServerMetricsSampler metrics) {
         this.menuManager = menuManager;
+        this.metrics = metrics;
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new ArrayList<>();
+        }
+    }
+    
+    /**
+     * Start timed refreshes for a newly opened menu.
+     *
+     * @param tick The current server tick
+     */
+    public void schedule(MenuSession session, long tick) {
+        MenuDefinition menu = session.getMenu();
+        if (!menu.shouldAutoUpdate() || session.isScheduled()) {
+            return;
+        }
+        
+        // The first refresh lands on the session's phase within the interval
+        file(session, tick + 1 + Math.floorMod(nextPhase++, menu.getUpdateInterval()));
+    }
+    
+    /**
+     * Drop all scheduled refreshes and throttling state, when the server stops.
+     * The next server counts ticks from zero again, so nothing filed under
+     * the old server's ticks may carry over.
+     */
+    public void reset() {
+        for (List<MenuSession> bucket : wheel) {
+            for (MenuSession session : bucket) {
+                session.setScheduled(false);
+            }
+            bucket.clear();
+        }
+        for (MenuSession session : queue) {
+            session.setQueued(false);
+        }
+        queue.clear();
+        requests.clear();
+        
+        currentTick = -1;
+        nextPhase = 0;
+        multiplier = 1;
+        lastStepTick = 0;
+        recoveredSince = -1;
+    }
+    
+    /**
+     * Update a menu on the next tick, e.g. because a game event changed its placeholders.
+     */
+    public void requestUpdate(MenuSession session) {
+        requests.add(session);
     }
     
     @SubscribeEvent
     public void onServerTick(ServerTickEvent.Post event) {
-        currentTick++;
+        MinecraftServer server = event.getServer();
+        long tick = server.getTickCount();
         
-        // Process all active sessions
-        for (MenuSession session : menuManager.getActiveSessions()) {
-            // Check if this menu needs updating
-            if (!session.getMenu().shouldAutoUpdate()) {
-                continue;
+        // Catch up on every bucket since the last tick, once around the wheel at most
+        if (currentTick < 0 || tick - currentTick > WHEEL_SIZE) {
+            currentTick = tick - 1;
+        }
+        while (currentTick < tick) {
+            currentTick++;
+            advance(currentTick);
+        }
+        
+        adjustThrottle(tick);
+        
+        MenuSession requested;
+        while ((requested = requests.poll()) != null) {
+            enqueue(requested);
+        }
+        
+        long start = System.nanoTime();
+        while (!queue.isEmpty()) {
+            if (System.nanoTime() - start >= budgetNanos) {
+                budgetOverruns++;
+                deferrals += queue.size();
+                break;
             }
             
-            // Check if enough time has passed since last update
-            if (!session.shouldUpdate(currentTick)) {
+            MenuSession session = queue.poll();
+            session.setQueued(false);
+            update(server, session);
+        }
+    }
+    
+    /**
+     * Take the sessions filed under a tick: queue the due ones and file the others again.
+     */
+    private void advance(long tick) {
+        int index = (int) (tick & WHEEL_MASK);
+        List<MenuSession> bucket = wheel[index];
+        if (bucket.isEmpty()) {
+            return;
+        }
+        
+        // Swap in an empty list since sessions may be filed into this bucket again
+        wheel[index] = spare;
+        for (MenuSession session : bucket) {
+            session.setScheduled(false);
+            if (!menuManager.isActive(session)) {
                 continue;
             }
             
-            // Get the player
-            ServerPlayer player = event.getServer()
-                    .getPlayerList()
-                    .getPlayer(session.getPlayerId());
-            
-            if (player == null) {
-                continue;
+            if (session.getNextUpdateTick() > tick) {
+                file(session, session.getNextUpdateTick());
+            } else {
+                enqueue(session);
             }
-            
-            // Make sure player still has our menu open
-            if (!menuManager.hasOpenMenu(player)) {
-                continue;
+        }
+        bucket.clear();
+        spare = bucket;
+    }
+    
+    /**
+     * Step the interval multiplier up while the server is over its tick time target,
+     * and back down once it has stayed well below it.
+     */
+    private void adjustThrottle(long tick) {
+        if (!adaptive) {
+            multiplier = 1;
+            recoveredSince = -1;
+            return;
+        }
+        
+        double mspt = metrics.getSnapshot().getMsptMean();
+        if (mspt > targetMspt) {
+            recoveredSince = -1;
+            if (multiplier < maxMultiplier && tick - lastStepTick >= STEP_UP_DELAY) {
+                multiplier = Math.min(maxMultiplier, multiplier * 2);
+                lastStepTick = tick;
+                ActionMenus.LOGGER.debug("Server at {} mspt, menu refresh intervals now x{}", mspt, multiplier);
             }
-            
-            // Update the menu
-            try {
-                menuManager.updateMenu(player);
-            } catch (Exception e) {
-                ActionMenus.LOGGER.error("Error updating menu {} for player {}", 
-                        session.getMenuId(), session.getPlayerName(), e);
+        } else if (mspt < targetMspt * RELAX_RATIO) {
+            if (recoveredSince < 0) {
+                recoveredSince = tick;
+            }
+            if (multiplier > 1 && tick - recoveredSince >= STEP_DOWN_DELAY && tick - lastStepTick >= STEP_DOWN_DELAY) {
+                multiplier /= 2;
+                lastStepTick = tick;
+                ActionMenus.LOGGER.debug("Server at {} mspt, menu refresh intervals now x{}", mspt, multiplier);
             }
+        } else {
+            // Between the thresholds, hold the current step
+            recoveredSince = -1;
         }
     }
     
     /**
-     * Get the current server tick.
+     * Get the interval multiplier for a session, halved for menus clicked recently.
+     */
+    private int getMultiplier(MenuSession session) {
+        int current = multiplier;
+        if (current > 1 && currentTick - session.getLastInteractionTick() < RECENT_INTERACTION_TICKS) {
+            return current / 2;
+        }
+        return current;
+    }
+    
+    private void file(MenuSession session, long tick) {
+        session.setNextUpdateTick(tick);
+        session.setScheduled(true);
+        wheel[(int) (tick & WHEEL_MASK)].add(session);
+    }
+    
+    private void enqueue(MenuSession session) {
+        if (!session.isQueued()) {
+            session.setQueued(true);
+            queue.add(session);
+        }
+    }
+    
+    private void update(MinecraftServer server, MenuSession session) {
+        // Skip sessions closed or replaced while queued
+        if (!menuManager.isActive(session)) {
+            return;
+        }
+        ServerPlayer player = server.getPlayerList().getPlayer(session.getPlayerId());
+        if (player == null) {
+            return;
+        }
+        
+        // Keep the phase: the next refresh is the first tick of it after now
+        MenuDefinition menu = session.getMenu();
+        if (menu.shouldAutoUpdate() && !session.isScheduled()) {
+            long next = session.getNextUpdateTick();
+            int interval = menu.getUpdateInterval() * getMultiplier(session);
+            if (next <= currentTick) {
+                next += ((currentTick - next) / interval + 1) * interval;
+            }
+            file(session, next);
+        }
+        
+        try {
+            menuManager.updateMenu(player, false);
+            updates++;
+        } catch (Exception e) {
+            ActionMenus.LOGGER.error("Error updating menu {} for player {}",
+                    session.getMenuId(), session.getPlayerName(), e);
+        }
+    }
+    
+    /**
+     * Set the time menu updates may take per tick.
+     */
+    public void setBudgetMillis(double millis) {
+        this.budgetNanos = toNanos(Math.max(0.1, millis));
+    }
+    
+    public double getBudgetMillis() {
+        return budgetNanos / 1_000_000.0;
+    }
+    
+    /**
+     * Configure adaptive throttling.
+     *
+     * @param enabled Whether intervals adapt to the server's tick time
+     * @param targetMspt Mean tick time in milliseconds above which intervals are stretched
+     * @param maxMultiplier Largest factor intervals are stretched by
+     */
+    public void setAdaptiveThrottling(boolean enabled, double targetMspt, int maxMultiplier) {
+        this.adaptive = enabled;
+        this.targetMspt = Math.max(1, targetMspt);
+        this.maxMultiplier = Math.max(1, maxMultiplier);
+    }
+    
+    public boolean isAdaptiveThrottling() {
+        return adaptive;
+    }
+    
+    public double getTargetMspt() {
+        return targetMspt;
+    }
+    
+    /**
+     * Get the factor refresh intervals are currently stretched by.
+     */
+    public int getMultiplier() {
+        return multiplier;
+    }
+    
+    /**
+     * Get the factor for menus the player clicked recently.
+     */
+    public int getRecentMultiplier() {
+        return Math.max(1, multiplier / 2);
+    }
+    
+    private static long toNanos(double millis) {
+        return (long) (millis * 1_000_000);
+    }
+    
+    /**
+     * Get the last server tick the scheduler processed.
      */
     public long getCurrentTick() {
         return currentTick;
     }
+    
+    /**
+     * Get the number of due sessions waiting for the next tick.
+     */
+    public int getQueuedCount() {
+        return queue.size();
+    }
+    
+    public long getUpdates() {
+        return updates;
+    }
+    
+    /**
+     * Get how many session updates were pushed to a later tick by the budget.
+     */
+    public long getDeferrals() {
+        return deferrals;
+    }
+    
+    /**
+     * Get the number of ticks that ran out of budget with updates left.
+     */
+    public long getBudgetOverruns() {
+        return budgetOverruns;
+    }
+    
+    public void resetStats() {
+        updates = 0;
+        deferrals = 0;
+        budgetOverruns = 0;
+    }
 }
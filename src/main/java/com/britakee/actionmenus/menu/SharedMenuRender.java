@@ -0,0 +1,224 @@
+package com.britakee.actionmenus.menu;
+
+import com.britakee.actionmenus.condition.Condition;
+import com.britakee.actionmenus.placeholder.PlaceholderManager;
+import com.britakee.actionmenus.placeholder.PlaceholderReference;
+import com.britakee.actionmenus.placeholder.PlaceholderTemplate;
+import net.minecraft.world.item.ItemStack;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Render state shared by every viewer of a menu.
+ *
+ * A slot is shared when its content cannot differ between viewers: none of
+ * its placeholders reads the player, session or arguments, its view requirement
+ * only compares such placeholders, and it has no skull owner. Shared slots are
+ * rendered once per refresh with no player, and every viewer's container shows
+ * the same stacks, so their cost does not grow with the number of viewers.
+ *
+ * Placeholders used only by shared slots are resolved here, not per session.
+ * Rendered on the server thread.
+ */
+final class SharedMenuRender {
+    
+    private final BitSet sharedSlots;
+    
+    // Placeholders used by shared slots, and those no other slot uses, by graph index
+    private final BitSet sharedReferences;
+    private final BitSet sharedOnly;
+    
+    // Last resolved value and check tick of each placeholder, by graph index
+    private final String[] placeholderValues;
+    private final long[] placeholderTicks;
+    
+    // Render state of the shared slots, indexed by slot
+    private final long[] slotTicks;
+    private final ItemStack[] stacks;
+    private final SlotFingerprint[] fingerprints;
+    
+    // Tick of the last refresh, shared slots refresh at most once per tick
+    private long refreshTick = -1;
+    
+    private SharedMenuRender(BitSet sharedSlots, BitSet sharedReferences, BitSet sharedOnly,
+                             int referenceCount, int size) {
+        this.sharedSlots = sharedSlots;
+        this.sharedReferences = sharedReferences;
+        this.sharedOnly = sharedOnly;
+        this.placeholderValues = new String[referenceCount];
+        this.placeholderTicks = new long[referenceCount];
+        this.slotTicks = new long[size];
+        this.stacks = new ItemStack[size];
+        this.fingerprints = new SlotFingerprint[size];
+        Arrays.fill(placeholderTicks, -1);
+        Arrays.fill(slotTicks, -1);
+    }
+    
+    /**
+     * Find the shared slots of a menu.
+     * Needs the menu's placeholders bound, so it runs on first use rather than at load.
+     */
+    static SharedMenuRender analyze(MenuDefinition menu, PlaceholderManager placeholderManager) {
+        MenuDependencyGraph graph = menu.getDependencyGraph();
+        BitSet sharedSlots = new BitSet(menu.getSize());
+        
+        for (int slot = 0; slot < menu.getSize(); slot++) {
+            MenuItem item = menu.getItem(slot);
+            if (item == null || item.isStatic()) {
+                continue;
+            }
+            
+            // Every candidate must qualify, since any of them may be shown
+            boolean shared = true;
+            for (MenuItem candidate : menu.getCandidates(slot)) {
+                if (!isViewerIndependent(candidate, placeholderManager)) {
+                    shared = false;
+                    break;
+                }
+            }
+            if (shared) {
+                sharedSlots.set(slot);
+            }
+        }
+        
+        BitSet sharedReferences = new BitSet();
+        BitSet sharedOnly = new BitSet();
+        for (int i = 0; i < graph.getReferenceCount(); i++) {
+            int shared = 0;
+            int[] slots = graph.getSlots(i);
+            for (int slot : slots) {
+                if (sharedSlots.get(slot)) {
+                    shared++;
+                }
+            }
+            if (shared > 0) {
+                sharedReferences.set(i);
+            }
+            if (shared == slots.length) {
+                sharedOnly.set(i);
+            }
+        }
+        
+        return new SharedMenuRender(sharedSlots, sharedReferences, sharedOnly,
+                graph.getReferenceCount(), menu.getSize());
+    }
+    
+    private static boolean isViewerIndependent(MenuItem item, PlaceholderManager placeholderManager) {
+        if (item.getSkullOwnerTemplate() != null) {
+            return false;
+        }
+        
+        List<PlaceholderTemplate> templates = new ArrayList<>();
+        if (item.getDisplayNameTemplate() != null) {
+            templates.add(item.getDisplayNameTemplate());
+        }
+        if (item.getLoreTemplates() != null) {
+            templates.addAll(item.getLoreTemplates());
+        }
+        
+        Condition requirement = item.getViewRequirement();
+        if (requirement != null) {
+            if (!requirement.isPlaceholderOnly()) {
+                return false;
+            }
+            templates.addAll(requirement.getTemplates());
+        }
+        
+        return isViewerIndependent(templates, placeholderManager);
+    }
+    
+    private static boolean isViewerIndependent(List<PlaceholderTemplate> templates, PlaceholderManager placeholderManager) {
+        for (PlaceholderTemplate template : templates) {
+            for (PlaceholderReference reference : template.getReferences()) {
+                if (!placeholderManager.isViewerIndependent(reference)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+    
+    boolean hasSharedSlots() {
+        return !sharedSlots.isEmpty();
+    }
+    
+    boolean isShared(int slot) {
+        return sharedSlots.get(slot);
+    }
+    
+    BitSet getSharedSlots() {
+        return sharedSlots;
+    }
+    
+    /**
+     * Check if a placeholder is used by a shared slot.
+     */
+    boolean usesReference(int index) {
+        return sharedReferences.get(index);
+    }
+    
+    /**
+     * Check if a placeholder is only used by shared slots, so sessions need not resolve it.
+     */
+    boolean isSharedOnly(int index) {
+        return sharedOnly.get(index);
+    }
+    
+    long getRefreshTick() {
+        return refreshTick;
+    }
+    
+    void setRefreshTick(long tick) {
+        this.refreshTick = tick;
+    }
+    
+    long getPlaceholderTick(int index) {
+        return placeholderTicks[index];
+    }
+    
+    /**
+     * Record a resolved placeholder value.
+     *
+     * @return true if the value differs from the previous one
+     */
+    boolean updatePlaceholderValue(int index, String value, long tick) {
+        placeholderTicks[index] = tick;
+        if (value.equals(placeholderValues[index])) {
+            return false;
+        }
+        placeholderValues[index] = value;
+        return true;
+    }
+    
+    void markPlaceholderDirty(int index) {
+        placeholderTicks[index] = -1;
+    }
+    
+    long getSlotTick(int slot) {
+        return slotTicks[slot];
+    }
+    
+    void setSlotTick(int slot, long tick) {
+        slotTicks[slot] = tick;
+    }
+    
+    /**
+     * Get the stack every viewer sees in a shared slot, or null before the first refresh.
+     * The stack is placed in several containers and must not be modified.
+     */
+    ItemStack getStack(int slot) {
+        return stacks[slot];
+    }
+    
+    SlotFingerprint getFingerprint(int slot) {
+        return fingerprints[slot];
+    }
+    
+    void setRendered(int slot, ItemStack stack, SlotFingerprint fingerprint) {
+        stacks[slot] = stack;
+        fingerprints[slot] = fingerprint;
+    }
+}
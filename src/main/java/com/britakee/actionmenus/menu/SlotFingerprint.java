@@ -0,0 +1,65 @@
+package com.britakee.actionmenus.menu;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * The resolved inputs a slot was last rendered from.
+ * Two equal fingerprints always build the same ItemStack, so a refresh
+ * can compare fingerprints and skip building when nothing changed.
+ *
+ * Material, amount and the other fixed properties are covered by the
+ * item itself, which is compared by identity.
+ */
+final class SlotFingerprint {
+    
+    /** Fingerprint of a slot hidden by its view requirement */
+    static final SlotFingerprint HIDDEN = new SlotFingerprint(null, null, null, null);
+    
+    private final MenuItem item;
+    private final String name;
+    private final String[] lore;
+    private final String skullOwner;
+    
+    SlotFingerprint(MenuItem item, String name, String[] lore, String skullOwner) {
+        this.item = item;
+        this.name = name;
+        this.lore = lore;
+        this.skullOwner = skullOwner;
+    }
+    
+    MenuItem getItem() {
+        return item;
+    }
+    
+    String getName() {
+        return name;
+    }
+    
+    String[] getLore() {
+        return lore;
+    }
+    
+    String getSkullOwner() {
+        return skullOwner;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SlotFingerprint other)) return false;
+        return item == other.item
+                && Objects.equals(name, other.name)
+                && Arrays.equals(lore, other.lore)
+                && Objects.equals(skullOwner, other.skullOwner);
+    }
+    
+    @Override
+    public int hashCode() {
+        int result = System.identityHashCode(item);
+        result = 31 * result + Objects.hashCode(name);
+        result = 31 * result + Arrays.hashCode(lore);
+        result = 31 * result + Objects.hashCode(skullOwner);
+        return result;
+    }
+}
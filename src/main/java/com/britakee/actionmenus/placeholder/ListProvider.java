@@ -0,0 +1,40 @@
+package com.britakee.actionmenus.placeholder;
+
+import com.britakee.actionmenus.menu.ListEntry;
+
+import java.util.List;
+
+/**
+ * Interface for list providers.
+ * Implement this to fill the paged lists of menus from a live collection,
+ * such as online players, levels or registry entries.
+ */
+public interface ListProvider {
+    
+    /**
+     * Get the identifier menus use to select this list (e.g., "players").
+     */
+    String getIdentifier();
+    
+    /**
+     * Get the current entries of the list.
+     * Keys must be unique within the list and stay the same for the same element,
+     * menus match entries by key and only update the ones that changed.
+     * 
+     * @param argument The text after the identifier in the menu config, empty if none
+     * @param context The context containing player and session info
+     * @return The entries in display order
+     */
+    List<ListEntry> getEntries(String argument, PlaceholderContext context);
+    
+    /**
+     * Get how often the list can change.
+     * Event-driven lists must call {@link PlaceholderManager#markListChanged} when they change.
+     * 
+     * @param argument The text after the identifier in the menu config, empty if none
+     * @return The volatility, PER_SECOND unless the provider knows better
+     */
+    default PlaceholderVolatility getVolatility(String argument) {
+        return PlaceholderVolatility.PER_SECOND;
+    }
+}
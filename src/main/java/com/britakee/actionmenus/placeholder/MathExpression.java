@@ -0,0 +1,404 @@
+package com.britakee.actionmenus.placeholder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Function;
+
+/**
+ * A math expression compiled once into a tree of nodes.
+ * Evaluating it needs no parsing and works on primitive doubles.
+ *
+ * Supports +, -, *, /, %, ^, parentheses, the functions
+ * round, floor, ceil, abs, sqrt, pow, min, max and random (nestable),
+ * and variables written as {placeholder} that are resolved on each evaluation.
+ *
+ * Example: round(max({player_level}, 5) * 1.5)
+ */
+public final class MathExpression {
+    
+    // Compiled expressions by source
+    private static final Map<String, MathExpression> CACHE = new ConcurrentHashMap<>();
+    private static final int MAX_CACHE_SIZE = 1000;
+    
+    private final String source;
+    private final Node root;
+    private final List<PlaceholderReference> variables;
+    private final boolean random;
+    
+    private MathExpression(String source, Node root, List<PlaceholderReference> variables, boolean random) {
+        this.source = source;
+        this.root = root;
+        this.variables = variables;
+        this.random = random;
+    }
+    
+    /**
+     * Get the compiled form of an expression, compiling it on first use.
+     *
+     * @throws IllegalArgumentException if the expression is invalid
+     */
+    public static MathExpression compile(String source) {
+        MathExpression expression = CACHE.get(source);
+        if (expression == null) {
+            expression = new Parser(source).parse();
+            
+            // Expressions normally come from configs, this only guards against unbounded ad hoc input
+            if (CACHE.size() >= MAX_CACHE_SIZE) {
+                CACHE.clear();
+            }
+            CACHE.put(source, expression);
+        }
+        return expression;
+    }
+    
+    /**
+     * Evaluate the expression.
+     *
+     * @param resolver Resolves variables to their text, non-numeric values count as 0
+     */
+    public double evaluate(Function<PlaceholderReference, String> resolver) {
+        return root.evaluate(resolver);
+    }
+    
+    /**
+     * Evaluate an expression without variables.
+     */
+    public double evaluate() {
+        return root.evaluate(reference -> reference.getRaw());
+    }
+    
+    public String getSource() {
+        return source;
+    }
+    
+    /**
+     * Get the placeholders used as variables, in order of appearance.
+     */
+    public List<PlaceholderReference> getVariables() {
+        return variables;
+    }
+    
+    /**
+     * Check if the expression uses random, so its value changes on every evaluation.
+     */
+    public boolean isRandom() {
+        return random;
+    }
+    
+    /**
+     * Format a result, whole numbers without decimals and others with two.
+     */
+    public static String format(double value) {
+        if (value == (long) value) {
+            return String.valueOf((long) value);
+        }
+        return String.format("%.2f", value);
+    }
+    
+    @Override
+    public String toString() {
+        return source;
+    }
+    
+    /**
+     * A node of the expression tree.
+     */
+    @FunctionalInterface
+    private interface Node {
+        double evaluate(Function<PlaceholderReference, String> resolver);
+    }
+    
+    /**
+     * Constant value, folded at compile time.
+     */
+    private record Constant(double value) implements Node {
+        @Override
+        public double evaluate(Function<PlaceholderReference, String> resolver) {
+            return value;
+        }
+    }
+    
+    /**
+     * Recursive-descent parser producing the node tree.
+     * Follows the precedence of the previous interpreter: unary minus binds
+     * tighter than ^, which binds tighter than * / %, then + -.
+     * All binary operators are left-associative.
+     */
+    private static final class Parser {
+        private final String source;
+        private final String input;
+        private final List<PlaceholderReference> variables = new ArrayList<>();
+        private boolean random;
+        private int pos;
+        
+        Parser(String source) {
+            this.source = source;
+            this.input = stripWhitespace(source);
+        }
+        
+        MathExpression parse() {
+            if (input.isEmpty()) {
+                throw new IllegalArgumentException("Empty expression");
+            }
+            
+            Node root = parseExpression();
+            if (pos < input.length()) {
+                throw error("Unexpected '" + input.charAt(pos) + "'");
+            }
+            
+            return new MathExpression(source, root, Collections.unmodifiableList(variables), random);
+        }
+        
+        private Node parseExpression() {
+            Node result = parseTerm();
+            
+            while (pos < input.length()) {
+                char op = input.charAt(pos);
+                if (op != '+' && op != '-') break;
+                pos++;
+                Node left = result;
+                Node right = parseTerm();
+                result = op == '+'
+                        ? fold(left, right, r -> left.evaluate(r) + right.evaluate(r))
+                        : fold(left, right, r -> left.evaluate(r) - right.evaluate(r));
+            }
+            
+            return result;
+        }
+        
+        private Node parseTerm() {
+            Node result = parseFactor();
+            
+            while (pos < input.length()) {
+                char op = input.charAt(pos);
+                if (op != '*' && op != '/' && op != '%') break;
+                pos++;
+                Node left = result;
+                Node right = parseFactor();
+                result = switch (op) {
+                    case '*' -> fold(left, right, r -> left.evaluate(r) * right.evaluate(r));
+                    case '/' -> fold(left, right, r -> left.evaluate(r) / right.evaluate(r));
+                    default -> fold(left, right, r -> left.evaluate(r) % right.evaluate(r));
+                };
+            }
+            
+            return result;
+        }
+        
+        private Node parseFactor() {
+            Node result = parseUnary();
+            
+            while (pos < input.length() && input.charAt(pos) == '^') {
+                pos++;
+                Node base = result;
+                Node exponent = parseUnary();
+                result = fold(base, exponent, r -> Math.pow(base.evaluate(r), exponent.evaluate(r)));
+            }
+            
+            return result;
+        }
+        
+        private Node parseUnary() {
+            if (pos >= input.length()) {
+                throw error("Unexpected end");
+            }
+            
+            char c = input.charAt(pos);
+            
+            if (c == '-') {
+                pos++;
+                Node operand = parseUnary();
+                return fold(operand, r -> -operand.evaluate(r));
+            }
+            
+            if (c == '(') {
+                pos++;
+                Node result = parseExpression();
+                expect(')');
+                return result;
+            }
+            
+            if (c == '{') {
+                return parseVariable();
+            }
+            
+            if (Character.isLetter(c)) {
+                return parseFunction();
+            }
+            
+            return parseNumber();
+        }
+        
+        private Node parseNumber() {
+            int start = pos;
+            while (pos < input.length() && (Character.isDigit(input.charAt(pos)) || input.charAt(pos) == '.')) {
+                pos++;
+            }
+            if (start == pos) {
+                throw error("Expected a number");
+            }
+            
+            try {
+                return new Constant(Double.parseDouble(input.substring(start, pos)));
+            } catch (NumberFormatException e) {
+                throw error("Invalid number " + input.substring(start, pos));
+            }
+        }
+        
+        private Node parseVariable() {
+            int end = input.indexOf('}', pos + 1);
+            if (end < 0 || end == pos + 1) {
+                throw error("Unterminated variable");
+            }
+            
+            // Expressions may come from runtime text, so variables are not interned
+            PlaceholderReference reference = PlaceholderReference.lookup(input.substring(pos + 1, end));
+            variables.add(reference);
+            pos = end + 1;
+            
+            return r -> toNumber(r.apply(reference));
+        }
+        
+        private Node parseFunction() {
+            int start = pos;
+            while (pos < input.length() && Character.isLetter(input.charAt(pos))) {
+                pos++;
+            }
+            String name = input.substring(start, pos).toLowerCase();
+            
+            List<Node> args = new ArrayList<>();
+            if (pos < input.length() && input.charAt(pos) == '(') {
+                pos++;
+                if (pos < input.length() && input.charAt(pos) == ')') {
+                    pos++;
+                } else {
+                    args.add(parseExpression());
+                    while (pos < input.length() && input.charAt(pos) == ',') {
+                        pos++;
+                        args.add(parseExpression());
+                    }
+                    expect(')');
+                }
+            }
+            
+            return switch (name) {
+                case "round" -> unary(name, args, x -> Math.round(x));
+                case "floor" -> unary(name, args, Math::floor);
+                case "ceil" -> unary(name, args, Math::ceil);
+                case "abs" -> unary(name, args, Math::abs);
+                case "sqrt" -> unary(name, args, Math::sqrt);
+                case "pow" -> {
+                    checkArgs(name, args, 2, 2);
+                    Node base = args.get(0);
+                    Node exponent = args.get(1);
+                    yield fold(base, exponent, r -> Math.pow(base.evaluate(r), exponent.evaluate(r)));
+                }
+                case "min" -> {
+                    checkArgs(name, args, 2, Integer.MAX_VALUE);
+                    Node[] nodes = args.toArray(new Node[0]);
+                    yield fold(nodes, r -> {
+                        double min = nodes[0].evaluate(r);
+                        for (int i = 1; i < nodes.length; i++) {
+                            min = Math.min(min, nodes[i].evaluate(r));
+                        }
+                        return min;
+                    });
+                }
+                case "max" -> {
+                    checkArgs(name, args, 2, Integer.MAX_VALUE);
+                    Node[] nodes = args.toArray(new Node[0]);
+                    yield fold(nodes, r -> {
+                        double max = nodes[0].evaluate(r);
+                        for (int i = 1; i < nodes.length; i++) {
+                            max = Math.max(max, nodes[i].evaluate(r));
+                        }
+                        return max;
+                    });
+                }
+                case "random", "rand" -> {
+                    random = true;
+                    if (args.isEmpty()) {
+                        yield r -> ThreadLocalRandom.current().nextDouble();
+                    }
+                    // Whole number between min and max, both inclusive
+                    checkArgs(name, args, 2, 2);
+                    Node min = args.get(0);
+                    Node max = args.get(1);
+                    yield r -> {
+                        int low = (int) min.evaluate(r);
+                        int high = (int) max.evaluate(r);
+                        return low + (int) (ThreadLocalRandom.current().nextDouble() * (high - low + 1));
+                    };
+                }
+                default -> throw error("Unknown function " + name);
+            };
+        }
+        
+        private Node unary(String name, List<Node> args, DoubleUnaryOperator function) {
+            checkArgs(name, args, 1, 1);
+            Node operand = args.get(0);
+            return fold(operand, r -> function.applyAsDouble(operand.evaluate(r)));
+        }
+        
+        private void checkArgs(String name, List<Node> args, int min, int max) {
+            if (args.size() < min || args.size() > max) {
+                throw error("Wrong number of arguments for " + name);
+            }
+        }
+        
+        private void expect(char c) {
+            if (pos >= input.length() || input.charAt(pos) != c) {
+                throw error("Expected '" + c + "'");
+            }
+            pos++;
+        }
+        
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at " + pos + " in " + source);
+        }
+        
+        /**
+         * Replace a node by its value when all its operands are constant.
+         */
+        private static Node fold(Node operand, Node node) {
+            return operand instanceof Constant ? new Constant(node.evaluate(null)) : node;
+        }
+        
+        private static Node fold(Node left, Node right, Node node) {
+            return left instanceof Constant && right instanceof Constant ? new Constant(node.evaluate(null)) : node;
+        }
+        
+        private static Node fold(Node[] operands, Node node) {
+            for (Node operand : operands) {
+                if (!(operand instanceof Constant)) {
+                    return node;
+                }
+            }
+            return new Constant(node.evaluate(null));
+        }
+        
+        private static double toNumber(String value) {
+            try {
+                return Double.parseDouble(value.trim());
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        
+        private static String stripWhitespace(String value) {
+            StringBuilder result = new StringBuilder(value.length());
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (!Character.isWhitespace(c)) {
+                    result.append(c);
+                }
+            }
+            return result.toString();
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.britakee.actionmenus.placeholder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Bounded cache of resolved placeholder values.
+ * Entries are keyed by (player, interned placeholder id), expire after a
+ * number of server ticks and are evicted least-recently-used once the
+ * cache holds more than its maximum size.
+ *
+ * Lookups do not allocate: each player has an array indexed by placeholder id,
+ * and all entries are linked into one LRU list.
+ */
+public class PlaceholderCache {
+    
+    public static final int DEFAULT_MAX_SIZE = 10000;
+    public static final int DEFAULT_TTL_TICKS = 2;
+    
+    // Tables per player, plus one for contexts without a player
+    private final Map<UUID, Table> tables = new HashMap<>();
+    private final Table globalTable = new Table(null);
+    
+    // LRU list: head is the least recently used entry
+    private Entry head;
+    private Entry tail;
+    private int size;
+    
+    private int maxSize = DEFAULT_MAX_SIZE;
+    private int ttlTicks = DEFAULT_TTL_TICKS;
+    
+    // Statistics
+    private long hits;
+    private long misses;
+    private long evictions;
+    
+    /**
+     * Get a cached value, or null if missing or expired.
+     */
+    public synchronized String get(UUID player, int id, int tick) {
+        Table table = player == null ? globalTable : tables.get(player);
+        Entry entry = table != null ? table.get(id) : null;
+        
+        if (entry == null || tick - entry.tick >= ttlTicks || tick < entry.tick) {
+            misses++;
+            return null;
+        }
+        
+        hits++;
+        moveToTail(entry);
+        return entry.value;
+    }
+    
+    /**
+     * Store a resolved value.
+     */
+    public synchronized void put(UUID player, int id, String value, int tick) {
+        if (maxSize <= 0) {
+            return;
+        }
+        
+        Table table = player == null ? globalTable : tables.computeIfAbsent(player, Table::new);
+        Entry entry = table.get(id);
+        
+        if (entry != null) {
+            entry.value = value;
+            entry.tick = tick;
+            moveToTail(entry);
+            return;
+        }
+        
+        entry = new Entry(table, id, value, tick);
+        table.set(id, entry);
+        linkLast(entry);
+        size++;
+        
+        while (size > maxSize) {
+            evict(head);
+            evictions++;
+        }
+    }
+    
+    /**
+     * Drop all cached values for a player.
+     */
+    public synchronized void invalidate(UUID player) {
+        Table table = tables.remove(player);
+        if (table == null) {
+            return;
+        }
+        
+        for (Entry entry : table.entries) {
+            if (entry != null) {
+                unlink(entry);
+                size--;
+            }
+        }
+    }
+    
+    /**
+     * Drop all cached values.
+     */
+    public synchronized void clear() {
+        tables.clear();
+        globalTable.entries = new Entry[0];
+        globalTable.count = 0;
+        head = null;
+        tail = null;
+        size = 0;
+    }
+    
+    /**
+     * Set the maximum number of cached values.
+     * 0 disables the cache.
+     */
+    public synchronized void setMaxSize(int maxSize) {
+        this.maxSize = Math.max(0, maxSize);
+        while (size > this.maxSize) {
+            evict(head);
+            evictions++;
+        }
+    }
+    
+    /**
+     * Set how many server ticks a value stays valid.
+     */
+    public synchronized void setTtlTicks(int ttlTicks) {
+        this.ttlTicks = Math.max(1, ttlTicks);
+    }
+    
+    public synchronized int getSize() {
+        return size;
+    }
+    
+    public synchronized int getMaxSize() {
+        return maxSize;
+    }
+    
+    public synchronized int getTtlTicks() {
+        return ttlTicks;
+    }
+    
+    public synchronized long getHits() {
+        return hits;
+    }
+    
+    public synchronized long getMisses() {
+        return misses;
+    }
+    
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+    
+    /**
+     * Get the hit rate as a percentage.
+     */
+    public synchronized double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : hits * 100.0 / total;
+    }
+    
+    public synchronized void resetStats() {
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+    
+    private void evict(Entry entry) {
+        unlink(entry);
+        entry.table.set(entry.id, null);
+        size--;
+        
+        // Forget empty player tables
+        if (entry.table.count == 0 && entry.table.player != null) {
+            tables.remove(entry.table.player);
+        }
+    }
+    
+    private void linkLast(Entry entry) {
+        entry.prev = tail;
+        entry.next = null;
+        if (tail != null) {
+            tail.next = entry;
+        } else {
+            head = entry;
+        }
+        tail = entry;
+    }
+    
+    private void unlink(Entry entry) {
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            head = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        } else {
+            tail = entry.prev;
+        }
+        entry.prev = null;
+        entry.next = null;
+    }
+    
+    private void moveToTail(Entry entry) {
+        if (entry != tail) {
+            unlink(entry);
+            linkLast(entry);
+        }
+    }
+    
+    /**
+     * Cached values for one player, indexed by placeholder id.
+     */
+    private static class Table {
+        private final UUID player;
+        private Entry[] entries = new Entry[0];
+        private int count;
+        
+        Table(UUID player) {
+            this.player = player;
+        }
+        
+        Entry get(int id) {
+            return id < entries.length ? entries[id] : null;
+        }
+        
+        void set(int id, Entry entry) {
+            if (id >= entries.length) {
+                if (entry == null) {
+                    return;
+                }
+                Entry[] grown = new Entry[Math.max(id + 1, entries.length * 2)];
+                System.arraycopy(entries, 0, grown, 0, entries.length);
+                entries = grown;
+            }
+            if (entries[id] == null && entry != null) {
+                count++;
+            } else if (entries[id] != null && entry == null) {
+                count--;
+            }
+            entries[id] = entry;
+        }
+    }
+    
+    /**
+     * A cached value, linked into the LRU list.
+     */
+    private static class Entry {
+        private final Table table;
+        private final int id;
+        private String value;
+        private int tick;
+        private Entry prev;
+        private Entry next;
+        
+        Entry(Table table, int id, String value, int tick) {
+            this.table = table;
+            this.id = id;
+            this.value = value;
+            this.tick = tick;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.britakee.actionmenus.placeholder;
+
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * Listener notified when placeholder values or lists change because of a game event.
+ */
+public interface PlaceholderChangeListener {
+    
+    /**
+     * Called when placeholder values may have changed.
+     * 
+     * @param playerId The affected player, or null if values changed for every player
+     * @param changed Matches the references whose values may have changed
+     */
+    void onPlaceholdersChanged(UUID playerId, Predicate<PlaceholderReference> changed);
+    
+    /**
+     * Called when the entries of a list provider may have changed.
+     * 
+     * @param playerId The affected player, or null if the list changed for every player
+     * @param identifier The list provider identifier
+     */
+    default void onListChanged(UUID playerId, String identifier) {
+    }
+}
@@ -6,12 +6,15 @@ import net.minecraft.server.level.ServerPlayer;
 /**
  * Context for placeholder resolution.
  * Contains the player, session, and any arguments.
+ * Contexts used off the server thread also carry the player snapshot
+ * captured for them on the server thread.
  */
 public class PlaceholderContext {
     
     private final ServerPlayer player;
     private final MenuSession session;
     private final String[] arguments;
+    private final PlayerSnapshot snapshot;
     
     public PlaceholderContext(ServerPlayer player) {
         this(player, null, null);
@@ -22,9 +25,14 @@ public class PlaceholderContext {
     }
     
     public PlaceholderContext(ServerPlayer player, MenuSession session, String[] arguments) {
+        this(player, session, arguments, null);
+    }
+    
+    public PlaceholderContext(ServerPlayer player, MenuSession session, String[] arguments, PlayerSnapshot snapshot) {
         this.player = player;
         this.session = session;
         this.arguments = arguments;
+        this.snapshot = snapshot;
     }
     
     public ServerPlayer getPlayer() {
@@ -35,6 +43,13 @@ public class PlaceholderContext {
         return session;
     }
     
+    /**
+     * Get the snapshot pinned for this context, or null to use the current tick's.
+     */
+    public PlayerSnapshot getSnapshot() {
+        return snapshot;
+    }
+    
     public String[] getArguments() {
         return arguments;
     }
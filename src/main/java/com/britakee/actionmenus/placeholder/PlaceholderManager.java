@@ -1,19 +1,28 @@
 package com.britakee.actionmenus.placeholder;
 
 import com.britakee.actionmenus.ActionMenus;
+import com.britakee.actionmenus.menu.MenuSession;
 import com.britakee.actionmenus.placeholder.providers.*;
 import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.neoforge.common.NeoForge;
+import net.neoforged.neoforge.event.entity.player.PlayerEvent;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
 
 /**
  * Central manager for placeholder resolution.
  * Handles registration of providers and parsing of placeholder strings.
  * 
  * Placeholder format: %category_placeholder% or %placeholder%
+ * 
+ * Each placeholder key is bound once to the provider that handles it,
+ * using the provider identifiers, aliases and {@link PlaceholderProvider#getPlaceholders()}.
+ * Keys no provider claims are reported once and rendered unchanged.
  * Examples:
  *   %player_name% - Player's name
  *   %player_health% - Player's current health
@@ -22,15 +31,33 @@ import java.util.regex.Pattern;
  */
 public class PlaceholderManager {
     
-    // Pattern to match placeholders: %...%
-    private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("%([^%]+)%");
-    
     // Registered placeholder providers
     private final Map<String, PlaceholderProvider> providers = new ConcurrentHashMap<>();
     
-    // Cached resolved values (optional, for performance)
-    private final Map<String, CachedValue> cache = new ConcurrentHashMap<>();
-    private static final long CACHE_DURATION_MS = 100; // 100ms cache
+    // Providers in registration order, earlier providers win bare key conflicts
+    private final List<PlaceholderProvider> providerOrder = new ArrayList<>();
+    
+    // Key index built from provider metadata, replaced whenever providers change
+    private volatile KeyIndex index = new KeyIndex();
+    private volatile int indexGeneration = 0;
+    
+    // Unknown keys already reported, so each is logged once
+    private final Set<String> reportedUnknown = ConcurrentHashMap.newKeySet();
+    
+    // Registered list providers
+    private final Map<String, ListProvider> listProviders = new ConcurrentHashMap<>();
+    
+    // Listeners notified when event-driven values change
+    private final List<PlaceholderChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+    
+    // Cached resolved values, keyed by player and placeholder id
+    private final PlaceholderCache cache = new PlaceholderCache();
+    
+    // Server metrics sampled once per tick
+    private final ServerMetricsSampler metricsSampler = new ServerMetricsSampler();
+    
+    // Latest player snapshots, replaced on the first lookup of each tick
+    private final Map<UUID, PlayerSnapshot> playerSnapshots = new ConcurrentHashMap<>();
     
     // Server reference
     private MinecraftServer server;
@@ -42,20 +69,42 @@ public class PlaceholderManager {
      * Register built-in placeholder providers.
      */
     public void registerBuiltInProviders() {
-        register(new PlayerPlaceholderProvider());
-        register(new ServerPlaceholderProvider());
-        register(new MathPlaceholderProvider());
+        PlayerPlaceholderProvider playerProvider = new PlayerPlaceholderProvider(this);
+        ServerPlaceholderProvider serverProvider = new ServerPlaceholderProvider(metricsSampler);
+        register(playerProvider);
+        register(serverProvider);
+        register(new MathPlaceholderProvider(this));
         register(new DateTimePlaceholderProvider());
         register(new SessionPlaceholderProvider());
+        register(new EntryPlaceholderProvider());
+        
+        PlayerListProvider playerListProvider = new PlayerListProvider(this);
+        registerList(playerListProvider);
+        registerList(new LevelListProvider(this));
+        registerList(new RegistryListProvider(this));
+        
+        // Providers that invalidate their values from game events
+        NeoForge.EVENT_BUS.register(playerProvider);
+        NeoForge.EVENT_BUS.register(serverProvider);
+        NeoForge.EVENT_BUS.register(playerListProvider);
         
-        ActionMenus.LOGGER.info("Registered {} built-in placeholder providers", providers.size());
+        ActionMenus.LOGGER.info("Registered {} built-in placeholder providers and {} list providers",
+                providers.size(), listProviders.size());
     }
     
     /**
      * Register a placeholder provider.
      */
     public void register(PlaceholderProvider provider) {
-        providers.put(provider.getIdentifier().toLowerCase(), provider);
+        String identifier = provider.getIdentifier().toLowerCase();
+        synchronized (providerOrder) {
+            PlaceholderProvider previous = providers.put(identifier, provider);
+            if (previous != null) {
+                providerOrder.remove(previous);
+            }
+            providerOrder.add(provider);
+            rebuildIndex();
+        }
         ActionMenus.LOGGER.debug("Registered placeholder provider: {}", provider.getIdentifier());
     }
     
@@ -63,100 +112,297 @@ public class PlaceholderManager {
      * Unregister a placeholder provider.
      */
     public void unregister(String identifier) {
-        providers.remove(identifier.toLowerCase());
+        synchronized (providerOrder) {
+            PlaceholderProvider removed = providers.remove(identifier.toLowerCase());
+            if (removed != null) {
+                providerOrder.remove(removed);
+                rebuildIndex();
+            }
+        }
+    }
+    
+    /**
+     * Rebuild the key index from the registered providers.
+     * References bound against the old index rebind on their next use.
+     */
+    private void rebuildIndex() {
+        KeyIndex newIndex = new KeyIndex();
+        
+        for (PlaceholderProvider provider : providerOrder) {
+            String identifier = provider.getIdentifier().toLowerCase();
+            for (String alias : provider.getAliases()) {
+                newIndex.aliases.putIfAbsent(alias.toLowerCase(), provider);
+            }
+            
+            Set<String> keys = new HashSet<>();
+            List<String> prefixes = new ArrayList<>();
+            for (String placeholder : provider.getPlaceholders()) {
+                String spec = placeholder.toLowerCase();
+                int variable = spec.indexOf('<');
+                if (variable < 0) {
+                    newIndex.bareKeys.putIfAbsent(spec, provider);
+                    keys.add(spec);
+                } else if (variable > 0) {
+                    // Families such as arg_<n> match on their fixed prefix
+                    newIndex.barePrefixes.putIfAbsent(spec.substring(0, variable), provider);
+                    prefixes.add(spec.substring(0, variable));
+                }
+                // A spec that is only a variable, like <expression>, needs the category
+            }
+            newIndex.declaredKeys.put(provider, keys);
+            newIndex.declaredPrefixes.put(provider, prefixes);
+            
+            // The provider's own identifier always wins over aliases
+            newIndex.aliases.remove(identifier);
+        }
+        
+        index = newIndex;
+        indexGeneration++;
+    }
+    
+    /**
+     * Bind a reference to the provider that handles it.
+     * Order: category identifier, category alias, bare key, bare key prefix.
+     * A category provider that doesn't declare the key's parameter gives way to
+     * a provider declaring the whole key, like session_open_seconds.
+     */
+    private PlaceholderReference.Binding bind(PlaceholderReference reference) {
+        KeyIndex current = index;
+        int generation = indexGeneration;
+        
+        PlaceholderProvider provider = null;
+        String argument = null;
+        
+        String category = reference.getCategory();
+        if (category != null) {
+            provider = providers.get(category);
+            if (provider != null) {
+                argument = reference.getParam();
+                if (!current.declares(provider, argument.toLowerCase())) {
+                    PlaceholderProvider whole = current.findBare(reference.getLowerKey());
+                    if (whole != null) {
+                        provider = whole;
+                        argument = reference.getKey();
+                    }
+                }
+            } else {
+                // Aliased providers handle their own prefixes
+                provider = current.aliases.get(category);
+                argument = reference.getKey();
+            }
+        }
+        
+        if (provider == null) {
+            argument = reference.getKey();
+            provider = current.findBare(reference.getLowerKey());
+        }
+        
+        // Unknown placeholders render as their raw text, which never changes
+        PlaceholderVolatility volatility = PlaceholderVolatility.CONSTANT;
+        boolean snapshotSafe = true;
+        boolean viewerIndependent = true;
+        if (provider == null) {
+            argument = null;
+            if (!reference.isInterned()) {
+                ActionMenus.LOGGER.debug("Unknown placeholder {} will be shown as-is", reference.getRaw());
+            } else if (reportedUnknown.add(reference.getKey())) {
+                ActionMenus.LOGGER.warn("Unknown placeholder {} will be shown as-is", reference.getRaw());
+            }
+        } else {
+            volatility = provider.getVolatility(argument);
+            snapshotSafe = provider.isSnapshotSafe(argument);
+            viewerIndependent = provider.isViewerIndependent(argument);
+        }
+        
+        PlaceholderReference.Binding binding = new PlaceholderReference.Binding(
+                provider, argument, volatility, snapshotSafe, viewerIndependent, generation);
+        reference.setBinding(binding);
+        return binding;
+    }
+    
+    /**
+     * Bind every placeholder compiled since the last call and report unknown keys.
+     * Called after menus are loaded so typos show up at load, not at render.
+     */
+    public void bindPending() {
+        reportedUnknown.clear();
+        for (PlaceholderReference reference : PlaceholderReference.drainPending()) {
+            bind(reference);
+        }
     }
     
     /**
      * Parse a string and replace all placeholders.
+     * Strings rendered repeatedly should be compiled once with
+     * {@link PlaceholderTemplate#compile(String)} and passed to
+     * {@link #parse(PlaceholderTemplate, PlaceholderContext)} instead.
      */
     public String parse(String input, PlaceholderContext context) {
         if (input == null || input.isEmpty()) {
             return input;
         }
         
-        if (!input.contains("%")) {
+        if (input.indexOf('%') < 0) {
             return input;
         }
         
-        Matcher matcher = PLACEHOLDER_PATTERN.matcher(input);
-        StringBuilder result = new StringBuilder();
+        return parse(PlaceholderTemplate.compileTransient(input), context);
+    }
+    
+    /**
+     * Render a compiled template and replace all placeholders.
+     */
+    public String parse(PlaceholderTemplate template, PlaceholderContext context) {
+        if (template == null) {
+            return null;
+        }
         
-        while (matcher.find()) {
-            String placeholder = matcher.group(1);
-            String replacement = resolve(placeholder, context);
-            matcher.appendReplacement(result, Matcher.quoteReplacement(replacement));
+        if (!template.hasPlaceholders()) {
+            return template.getSource();
         }
-        matcher.appendTail(result);
         
-        return result.toString();
+        return template.render(reference -> resolve(reference, context));
     }
     
     /**
      * Resolve a single placeholder.
      */
     public String resolve(String placeholder, PlaceholderContext context) {
+        return resolve(PlaceholderReference.lookup(placeholder), context);
+    }
+    
+    /**
+     * Resolve a single pre-split placeholder reference.
+     */
+    public String resolve(PlaceholderReference reference, PlaceholderContext context) {
+        PlaceholderReference.Binding binding = reference.getBinding();
+        if (binding == null || binding.generation != indexGeneration) {
+            binding = bind(reference);
+        }
+        
+        // Transient references have no id to cache under
+        if (!reference.isInterned()) {
+            return resolveInternal(reference, binding, context);
+        }
+        
+        // Stable values are resolved once and folded into the session
+        MenuSession session = context.getSession();
+        if (session != null && binding.volatility.isStable()) {
+            String folded = session.getFoldedPlaceholder(reference);
+            if (folded == null) {
+                folded = resolveInternal(reference, binding, context);
+                session.foldPlaceholder(reference, folded);
+            }
+            return folded;
+        }
+        
+        // The server tick is the cache clock, without a server nothing is cached
+        int tick = server != null ? server.getTickCount() : -1;
+        UUID playerId = context.getPlayer() != null ? context.getPlayer().getUUID() : null;
+        
         // Check cache first
-        String cacheKey = placeholder + "_" + (context.getPlayer() != null ? context.getPlayer().getUUID() : "null");
-        CachedValue cached = cache.get(cacheKey);
-        if (cached != null && !cached.isExpired()) {
-            return cached.getValue();
+        if (tick >= 0) {
+            String cached = cache.get(playerId, reference.getId(), tick);
+            if (cached != null) {
+                return cached;
+            }
         }
         
-        String result = resolveInternal(placeholder, context);
+        String result = resolveInternal(reference, binding, context);
         
         // Cache the result
-        cache.put(cacheKey, new CachedValue(result));
+        if (tick >= 0) {
+            cache.put(playerId, reference.getId(), result, tick);
+        }
         
         return result;
     }
     
     /**
-     * Internal resolution logic.
+     * Get how often a placeholder's value can change, binding it if needed.
      */
-    private String resolveInternal(String placeholder, PlaceholderContext context) {
-        // Try to parse category_placeholder format
-        String category;
-        String param;
-        
-        int underscoreIndex = placeholder.indexOf('_');
-        if (underscoreIndex > 0) {
-            category = placeholder.substring(0, underscoreIndex).toLowerCase();
-            param = placeholder.substring(underscoreIndex + 1);
-        } else {
-            // No category, try all providers
-            category = null;
-            param = placeholder;
+    public PlaceholderVolatility getVolatility(PlaceholderReference reference) {
+        PlaceholderReference.Binding binding = reference.getBinding();
+        if (binding == null || binding.generation != indexGeneration) {
+            binding = bind(reference);
         }
-        
-        // If category specified, use that provider
-        if (category != null) {
-            PlaceholderProvider provider = providers.get(category);
-            if (provider != null) {
-                String result = provider.resolve(param, context);
-                if (result != null) {
-                    return result;
-                }
-            }
+        return binding.volatility;
+    }
+    
+    /**
+     * Check if a placeholder can be resolved off the server thread, binding it if needed.
+     *
+     * @see PlaceholderProvider#isSnapshotSafe(String)
+     */
+    public boolean isSnapshotSafe(PlaceholderReference reference) {
+        PlaceholderReference.Binding binding = reference.getBinding();
+        if (binding == null || binding.generation != indexGeneration) {
+            binding = bind(reference);
         }
-        
-        // Try all providers
-        for (PlaceholderProvider provider : providers.values()) {
-            String result = provider.resolve(placeholder, context);
-            if (result != null) {
-                return result;
-            }
-            
-            // Also try without category prefix
-            if (category != null) {
-                result = provider.resolve(param, context);
-                if (result != null) {
-                    return result;
-                }
-            }
+        return binding.snapshotSafe;
+    }
+    
+    /**
+     * Check if a placeholder has the same value for every viewer, binding it if needed.
+     *
+     * @see PlaceholderProvider#isViewerIndependent(String)
+     */
+    public boolean isViewerIndependent(PlaceholderReference reference) {
+        PlaceholderReference.Binding binding = reference.getBinding();
+        if (binding == null || binding.generation != indexGeneration) {
+            binding = bind(reference);
         }
+        return binding.viewerIndependent;
+    }
+    
+    /**
+     * Get the provider a placeholder binds to, binding it if needed.
+     *
+     * @return The provider, or null if no provider handles the placeholder
+     */
+    public PlaceholderProvider getBoundProvider(PlaceholderReference reference) {
+        PlaceholderReference.Binding binding = reference.getBinding();
+        if (binding == null || binding.generation != indexGeneration) {
+            binding = bind(reference);
+        }
+        return binding.provider;
+    }
+    
+    /**
+     * Internal resolution logic.
+     */
+    private String resolveInternal(PlaceholderReference reference, PlaceholderReference.Binding binding,
+                                   PlaceholderContext context) {
+        if (binding.isUnknown()) {
+            return reference.getRaw();
+        }
+        
+        String result = binding.provider.resolve(binding.argument, context);
         
-        // Return original if no provider found
-        return "%" + placeholder + "%";
+        // Return original if the provider could not handle it
+        return result != null ? result : reference.getRaw();
+    }
+    
+    /**
+     * Register a list provider.
+     */
+    public void registerList(ListProvider provider) {
+        listProviders.put(provider.getIdentifier().toLowerCase(), provider);
+        ActionMenus.LOGGER.debug("Registered list provider: {}", provider.getIdentifier());
+    }
+    
+    /**
+     * Get a list provider, or null if none is registered under the identifier.
+     */
+    public ListProvider getListProvider(String identifier) {
+        return listProviders.get(identifier.toLowerCase());
+    }
+    
+    /**
+     * Get all registered list provider identifiers.
+     */
+    public Set<String> getListIdentifiers() {
+        return Collections.unmodifiableSet(listProviders.keySet());
     }
     
     /**
@@ -178,6 +424,9 @@ public class PlaceholderManager {
      */
     public void setServer(MinecraftServer server) {
         this.server = server;
+        if (server == null) {
+            metricsSampler.reset();
+        }
         
         // Update server reference in providers that need it
         for (PlaceholderProvider provider : providers.values()) {
@@ -194,6 +443,36 @@ public class PlaceholderManager {
         return server;
     }
     
+    /**
+     * Get the snapshot of a player's values for the current tick,
+     * capturing it on the first lookup of the tick.
+     */
+    public PlayerSnapshot getPlayerSnapshot(ServerPlayer player) {
+        int tick = player.server.getTickCount();
+        PlayerSnapshot snapshot = playerSnapshots.get(player.getUUID());
+        if (snapshot == null || snapshot.getTick() != tick) {
+            snapshot = PlayerSnapshot.capture(player, tick);
+            playerSnapshots.put(player.getUUID(), snapshot);
+        }
+        return snapshot;
+    }
+    
+    /**
+     * Get the player snapshot for a context: the one pinned in the context
+     * when rendering off the server thread, otherwise the current tick's.
+     */
+    public PlayerSnapshot getPlayerSnapshot(PlaceholderContext context) {
+        PlayerSnapshot pinned = context.getSnapshot();
+        return pinned != null ? pinned : getPlayerSnapshot(context.getPlayer());
+    }
+    
+    /**
+     * Get the sampler holding the latest server metrics.
+     */
+    public ServerMetricsSampler getMetricsSampler() {
+        return metricsSampler;
+    }
+    
     /**
      * Clear the placeholder cache.
      */
@@ -202,23 +481,124 @@ public class PlaceholderManager {
     }
     
     /**
-     * Cache entry for placeholder values.
+     * Register a listener for event-driven placeholder changes.
      */
-    private static class CachedValue {
-        private final String value;
-        private final long timestamp;
+    public void addChangeListener(PlaceholderChangeListener listener) {
+        changeListeners.add(listener);
+    }
+    
+    /**
+     * Mark placeholders of a provider as changed, e.g. from a game event.
+     * Open menus showing them are updated on the next tick.
+     * 
+     * @param playerId The affected player, or null for every player
+     * @param identifier The provider identifier
+     * @param placeholders The changed placeholders as passed to the provider's resolve,
+     *                     or null for all of the provider's placeholders
+     */
+    public void markChanged(UUID playerId, String identifier, Set<String> placeholders) {
+        PlaceholderProvider provider = providers.get(identifier.toLowerCase());
+        if (provider == null) {
+            return;
+        }
         
-        public CachedValue(String value) {
-            this.value = value;
-            this.timestamp = System.currentTimeMillis();
+        // The event may have changed values captured earlier this tick
+        if (playerId != null) {
+            cache.invalidate(playerId);
+            playerSnapshots.remove(playerId);
+        } else {
+            cache.clear();
+            playerSnapshots.clear();
         }
         
-        public String getValue() {
-            return value;
+        Predicate<PlaceholderReference> changed = reference -> {
+            PlaceholderReference.Binding binding = reference.getBinding();
+            return binding != null && binding.provider == provider
+                    && (placeholders == null || placeholders.contains(binding.argument.toLowerCase()));
+        };
+        for (PlaceholderChangeListener listener : changeListeners) {
+            listener.onPlaceholdersChanged(playerId, changed);
         }
+    }
+    
+    /**
+     * Mark the entries of a list provider as changed, e.g. from a game event.
+     * Open menus showing the list are updated on the next tick.
+     * 
+     * @param playerId The affected player, or null for every player
+     * @param identifier The list provider identifier
+     */
+    public void markListChanged(UUID playerId, String identifier) {
+        for (PlaceholderChangeListener listener : changeListeners) {
+            listener.onListChanged(playerId, identifier);
+        }
+    }
+    
+    /**
+     * Drop cached values for a player, e.g. when their menu context changes.
+     */
+    public void invalidate(UUID playerId) {
+        cache.invalidate(playerId);
+    }
+    
+    /**
+     * Get the placeholder cache, for configuration and statistics.
+     */
+    public PlaceholderCache getCache() {
+        return cache;
+    }
+    
+    /**
+     * Drop a player's cached values when they log out.
+     */
+    @SubscribeEvent
+    public void onPlayerLogout(PlayerEvent.PlayerLoggedOutEvent event) {
+        cache.invalidate(event.getEntity().getUUID());
+        playerSnapshots.remove(event.getEntity().getUUID());
+    }
+    
+    /**
+     * Lookup tables built from provider identifiers, aliases and placeholder lists.
+     */
+    private static class KeyIndex {
+        private final Map<String, PlaceholderProvider> aliases = new HashMap<>();
+        private final Map<String, PlaceholderProvider> bareKeys = new HashMap<>();
+        private final Map<String, PlaceholderProvider> barePrefixes = new LinkedHashMap<>();
+        
+        // Keys and key prefixes each provider declares
+        private final Map<PlaceholderProvider, Set<String>> declaredKeys = new HashMap<>();
+        private final Map<PlaceholderProvider, List<String>> declaredPrefixes = new HashMap<>();
         
-        public boolean isExpired() {
-            return System.currentTimeMillis() - timestamp > CACHE_DURATION_MS;
+        /**
+         * Find the provider of a key written without a category: exact key first, then the longest prefix.
+         */
+        PlaceholderProvider findBare(String lowerKey) {
+            PlaceholderProvider provider = bareKeys.get(lowerKey);
+            if (provider != null) {
+                return provider;
+            }
+            
+            int longest = -1;
+            for (Map.Entry<String, PlaceholderProvider> entry : barePrefixes.entrySet()) {
+                String prefix = entry.getKey();
+                if (prefix.length() > longest && lowerKey.startsWith(prefix)) {
+                    provider = entry.getValue();
+                    longest = prefix.length();
+                }
+            }
+            return provider;
+        }
+        
+        boolean declares(PlaceholderProvider provider, String lowerKey) {
+            if (declaredKeys.getOrDefault(provider, Set.of()).contains(lowerKey)) {
+                return true;
+            }
+            for (String prefix : declaredPrefixes.getOrDefault(provider, List.of())) {
+                if (lowerKey.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
         }
     }
 }
@@ -12,6 +12,15 @@ public interface PlaceholderProvider {
      */
     String getIdentifier();
     
+    /**
+     * Get additional prefixes handled by this provider (e.g., "date" for %date_formatted%).
+     * Placeholders using an alias are passed to {@link #resolve} with their full key,
+     * so the provider must strip the prefix itself.
+     */
+    default String[] getAliases() {
+        return new String[0];
+    }
+    
     /**
      * Get the author of this provider.
      */
@@ -35,9 +44,49 @@ public interface PlaceholderProvider {
      */
     String resolve(String placeholder, PlaceholderContext context);
     
+    /**
+     * Get how often a placeholder's value can change.
+     * Override this to let menus skip re-resolving stable values.
+     * 
+     * @param placeholder The placeholder as passed to {@link #resolve}
+     * @return The volatility, PER_TICK unless the provider knows better
+     */
+    default PlaceholderVolatility getVolatility(String placeholder) {
+        return PlaceholderVolatility.PER_TICK;
+    }
+    
+    /**
+     * Check if a placeholder can be resolved off the server thread.
+     * Safe placeholders only read the context's {@link PlayerSnapshot}, server
+     * metrics or other values that are immutable or safe to read concurrently.
+     * Anything touching the live player, world or session must stay unsafe.
+     *
+     * @param placeholder The placeholder as passed to {@link #resolve}
+     * @return true if resolving off the server thread is safe, false unless the provider knows better
+     */
+    default boolean isSnapshotSafe(String placeholder) {
+        return false;
+    }
+    
+    /**
+     * Check if a placeholder has the same value for every viewer.
+     * Such placeholders must not read the context's player, session or arguments,
+     * and menus may resolve them once for all viewers with no player in the context.
+     *
+     * @param placeholder The placeholder as passed to {@link #resolve}
+     * @return true if the value is the same for every viewer, false unless the provider knows better
+     */
+    default boolean isViewerIndependent(String placeholder) {
+        return false;
+    }
+    
     /**
      * Get a list of all placeholders this provider supports.
-     * Used for documentation and tab completion.
+     * Used for documentation, tab completion and to route placeholders
+     * written without the category prefix (e.g., %online%).
+     * Entries like "arg_<n>" match any placeholder starting with "arg_".
+     * Keys handled by {@link #resolve} but not listed here are only reached
+     * through the category prefix, so list every alias the provider handles.
      */
     default String[] getPlaceholders() {
         return new String[0];
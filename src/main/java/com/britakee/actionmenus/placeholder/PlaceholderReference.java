@@ -0,0 +1,190 @@
+package com.britakee.actionmenus.placeholder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A single placeholder inside a {@link PlaceholderTemplate}.
+ * The category/parameter split is done once when the template is compiled.
+ *
+ * References are interned by key, so every template using %player_health%
+ * shares one instance and one provider binding. Keys met at runtime, like
+ * text resolved from other placeholders, get a transient reference instead,
+ * which is not interned and bypasses the per-player cache, so they leave
+ * nothing behind on a long-running server.
+ *
+ * Example: for %player_health% the key is "player_health",
+ * the category is "player" and the parameter is "health".
+ */
+public final class PlaceholderReference {
+    
+    // Interned references by key
+    private static final Map<String, PlaceholderReference> INTERNED = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+    
+    // Id of transient references
+    private static final int TRANSIENT_ID = -1;
+    
+    // References compiled since the last drain, checked after each config load
+    private static final Set<PlaceholderReference> PENDING = ConcurrentHashMap.newKeySet();
+    
+    private final int id;
+    private final String key;
+    private final String lowerKey;
+    private final String category;
+    private final String param;
+    
+    // Provider this reference resolves through, set by PlaceholderManager
+    private volatile Binding binding;
+    
+    private PlaceholderReference(int id, String key) {
+        this.id = id;
+        this.key = key;
+        this.lowerKey = key.toLowerCase();
+        
+        int underscoreIndex = key.indexOf('_');
+        if (underscoreIndex > 0) {
+            this.category = key.substring(0, underscoreIndex).toLowerCase();
+            this.param = key.substring(underscoreIndex + 1);
+        } else {
+            // No category, the whole key is the parameter
+            this.category = null;
+            this.param = key;
+        }
+    }
+    
+    /**
+     * Get the shared reference for a placeholder key.
+     */
+    public static PlaceholderReference of(String key) {
+        PlaceholderReference reference = INTERNED.get(key);
+        if (reference == null) {
+            reference = INTERNED.computeIfAbsent(key, k -> new PlaceholderReference(NEXT_ID.getAndIncrement(), k));
+        }
+        PENDING.add(reference);
+        return reference;
+    }
+    
+    /**
+     * Get the shared reference for a key met at runtime if one exists, or a transient one.
+     */
+    public static PlaceholderReference lookup(String key) {
+        PlaceholderReference reference = INTERNED.get(key);
+        return reference != null ? reference : new PlaceholderReference(TRANSIENT_ID, key);
+    }
+    
+    /**
+     * Take the references compiled since the last call.
+     */
+    static List<PlaceholderReference> drainPending() {
+        List<PlaceholderReference> drained = new ArrayList<>(PENDING);
+        PENDING.removeAll(drained);
+        return drained;
+    }
+    
+    /**
+     * Get the interned id of this reference, unique per key, or -1 if it is transient.
+     */
+    public int getId() {
+        return id;
+    }
+    
+    /**
+     * Check if this reference is shared by every template using its key.
+     */
+    public boolean isInterned() {
+        return id != TRANSIENT_ID;
+    }
+    
+    /**
+     * Get the full placeholder key without the surrounding % signs.
+     */
+    public String getKey() {
+        return key;
+    }
+    
+    /**
+     * Get the lowercase form of the key, used for index lookups.
+     */
+    public String getLowerKey() {
+        return lowerKey;
+    }
+    
+    /**
+     * Get the lowercase category prefix, or null if the key has none.
+     */
+    public String getCategory() {
+        return category;
+    }
+    
+    /**
+     * Get the key without the category prefix.
+     */
+    public String getParam() {
+        return param;
+    }
+    
+    public boolean hasCategory() {
+        return category != null;
+    }
+    
+    /**
+     * Get the text used when this placeholder cannot be resolved.
+     */
+    public String getRaw() {
+        return "%" + key + "%";
+    }
+    
+    /**
+     * Get how often this placeholder's value can change.
+     * Unbound references are treated as changing every tick.
+     */
+    public PlaceholderVolatility getVolatility() {
+        Binding current = binding;
+        return current != null ? current.volatility : PlaceholderVolatility.PER_TICK;
+    }
+    
+    Binding getBinding() {
+        return binding;
+    }
+    
+    void setBinding(Binding binding) {
+        this.binding = binding;
+    }
+    
+    @Override
+    public String toString() {
+        return getRaw();
+    }
+    
+    /**
+     * The provider and argument a reference resolves to.
+     * A binding with no provider marks an unknown placeholder.
+     */
+    static final class Binding {
+        final PlaceholderProvider provider;
+        final String argument;
+        final PlaceholderVolatility volatility;
+        final boolean snapshotSafe;
+        final boolean viewerIndependent;
+        final int generation;
+        
+        Binding(PlaceholderProvider provider, String argument, PlaceholderVolatility volatility,
+                boolean snapshotSafe, boolean viewerIndependent, int generation) {
+            this.provider = provider;
+            this.argument = argument;
+            this.volatility = volatility;
+            this.snapshotSafe = snapshotSafe;
+            this.viewerIndependent = viewerIndependent;
+            this.generation = generation;
+        }
+        
+        boolean isUnknown() {
+            return provider == null;
+        }
+    }
+}
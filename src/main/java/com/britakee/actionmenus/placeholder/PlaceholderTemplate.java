@@ -0,0 +1,159 @@
+package com.britakee.actionmenus.placeholder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A string compiled into literal segments and placeholder references.
+ * Templates are built once when configs are loaded, so rendering them
+ * needs no regex and only a single exact-size buffer.
+ *
+ * Layout: literal[0] ref[0] literal[1] ref[1] ... literal[n]
+ */
+public final class PlaceholderTemplate {
+    
+    /** Template for an empty string */
+    public static final PlaceholderTemplate EMPTY = new PlaceholderTemplate("", new String[] {""}, new PlaceholderReference[0]);
+    
+    private final String source;
+    private final String[] literals;
+    private final PlaceholderReference[] references;
+    private final int literalLength;
+    
+    private PlaceholderTemplate(String source, String[] literals, PlaceholderReference[] references) {
+        this.source = source;
+        this.literals = literals;
+        this.references = references;
+        
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+    
+    /**
+     * Compile a string into a template.
+     * Matches the same placeholders as the %([^%]+)% pattern.
+     */
+    public static PlaceholderTemplate compile(String source) {
+        return compile(source, true);
+    }
+    
+    /**
+     * Compile a string met at runtime, like text resolved from other placeholders.
+     * Placeholders not already interned get transient references.
+     */
+    public static PlaceholderTemplate compileTransient(String source) {
+        return compile(source, false);
+    }
+    
+    private static PlaceholderTemplate compile(String source, boolean intern) {
+        if (source == null || source.isEmpty()) {
+            return EMPTY;
+        }
+        
+        List<String> literals = new ArrayList<>();
+        List<PlaceholderReference> references = new ArrayList<>();
+        
+        int literalStart = 0;
+        int start = source.indexOf('%');
+        while (start >= 0) {
+            int end = source.indexOf('%', start + 1);
+            if (end < 0) {
+                break;
+            }
+            if (end == start + 1) {
+                // "%%" is not a placeholder, retry from the second %
+                start = end;
+                continue;
+            }
+            
+            literals.add(source.substring(literalStart, start));
+            String key = source.substring(start + 1, end);
+            references.add(intern ? PlaceholderReference.of(key) : PlaceholderReference.lookup(key));
+            literalStart = end + 1;
+            start = source.indexOf('%', literalStart);
+        }
+        literals.add(source.substring(literalStart));
+        
+        return new PlaceholderTemplate(source,
+                literals.toArray(new String[0]),
+                references.toArray(new PlaceholderReference[0]));
+    }
+    
+    /**
+     * Render this template, resolving each placeholder with the given function.
+     */
+    public String render(Function<PlaceholderReference, String> resolver) {
+        int count = references.length;
+        if (count == 0) {
+            return source;
+        }
+        
+        // Single placeholder with no surrounding text, e.g. "%player_name%"
+        if (count == 1 && literalLength == 0) {
+            return resolver.apply(references[0]);
+        }
+        
+        String[] values = new String[count];
+        int length = literalLength;
+        for (int i = 0; i < count; i++) {
+            values[i] = resolver.apply(references[i]);
+            length += values[i].length();
+        }
+        
+        StringBuilder result = new StringBuilder(length);
+        for (int i = 0; i < count; i++) {
+            result.append(literals[i]).append(values[i]);
+        }
+        result.append(literals[count]);
+        
+        return result.toString();
+    }
+    
+    /**
+     * Get the original string this template was compiled from.
+     */
+    public String getSource() {
+        return source;
+    }
+    
+    /**
+     * Get the placeholders used by this template, in order of appearance.
+     */
+    public List<PlaceholderReference> getReferences() {
+        return Collections.unmodifiableList(Arrays.asList(references));
+    }
+    
+    /**
+     * Check if this template contains any placeholders.
+     */
+    public boolean hasPlaceholders() {
+        return references.length > 0;
+    }
+    
+    /**
+     * Get how often the rendered text can change,
+     * which is the least stable volatility of its placeholders.
+     */
+    public PlaceholderVolatility getVolatility() {
+        PlaceholderVolatility volatility = PlaceholderVolatility.CONSTANT;
+        for (PlaceholderReference reference : references) {
+            volatility = volatility.max(reference.getVolatility());
+        }
+        return volatility;
+    }
+    
+    public boolean isEmpty() {
+        return source.isEmpty();
+    }
+    
+    @Override
+    public String toString() {
+        return source;
+    }
+}
@@ -0,0 +1,40 @@
+package com.britakee.actionmenus.placeholder;
+
+/**
+ * How often the value of a placeholder can change.
+ * Providers declare this per placeholder so menus only re-resolve what can change.
+ *
+ * Levels are ordered from most to least stable.
+ */
+public enum PlaceholderVolatility {
+    
+    /** Never changes while the server runs, e.g. %server_version% */
+    CONSTANT,
+    
+    /** Fixed for the lifetime of a menu session, e.g. %player_name% or menu arguments */
+    PER_SESSION,
+    
+    /** Changes only when a game event happens, e.g. %player_health% */
+    EVENT_DRIVEN,
+    
+    /** Changes at most once per second, e.g. %time_second% */
+    PER_SECOND,
+    
+    /** May change every tick, e.g. %player_x% */
+    PER_TICK;
+    
+    /**
+     * Check if values stay the same for a whole menu session.
+     * Stable values are resolved once per session and never refreshed.
+     */
+    public boolean isStable() {
+        return this == CONSTANT || this == PER_SESSION;
+    }
+    
+    /**
+     * Get the less stable of two volatilities.
+     */
+    public PlaceholderVolatility max(PlaceholderVolatility other) {
+        return other.ordinal() > ordinal() ? other : this;
+    }
+}
@@ -0,0 +1,334 @@
+package com.britakee.actionmenus.placeholder;
+
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.stats.Stats;
+import net.minecraft.world.level.GameType;
+
+/**
+ * Values of a player captured once per tick.
+ * All placeholder lookups and checks for the player during that tick read
+ * the same values, and formatted strings are created on first use and then shared.
+ *
+ * Obtain snapshots through {@link PlaceholderManager#getPlayerSnapshot(ServerPlayer)}.
+ */
+public final class PlayerSnapshot {
+    
+    private final int tick;
+    
+    private final float health;
+    private final float maxHealth;
+    private final int food;
+    private final float saturation;
+    
+    private final int level;
+    private final int totalExperience;
+    private final int experienceToLevel;
+    private final float experienceProgress;
+    
+    private final double x;
+    private final double y;
+    private final double z;
+    private final float yaw;
+    private final float pitch;
+    private final ResourceLocation dimension;
+    
+    private final GameType gameMode;
+    private final int ping;
+    private final int playTime;
+    
+    private final boolean sneaking;
+    private final boolean sprinting;
+    private final boolean flying;
+    private final boolean swimming;
+    private final boolean sleeping;
+    
+    private final int armor;
+    private final int air;
+    private final int maxAir;
+    
+    // Lazily formatted values, racing writers produce equal strings
+    private String healthText;
+    private String maxHealthText;
+    private String healthPercentText;
+    private String saturationText;
+    private String experiencePercentText;
+    private String xText;
+    private String yText;
+    private String zText;
+    private String preciseXText;
+    private String preciseYText;
+    private String preciseZText;
+    private String yawText;
+    private String pitchText;
+    private String locationText;
+    
+    private PlayerSnapshot(ServerPlayer player, int tick) {
+        this.tick = tick;
+        
+        this.health = player.getHealth();
+        this.maxHealth = player.getMaxHealth();
+        this.food = player.getFoodData().getFoodLevel();
+        this.saturation = player.getFoodData().getSaturationLevel();
+        
+        this.level = player.experienceLevel;
+        this.totalExperience = player.totalExperience;
+        this.experienceToLevel = player.getXpNeededForNextLevel();
+        this.experienceProgress = player.experienceProgress;
+        
+        this.x = player.getX();
+        this.y = player.getY();
+        this.z = player.getZ();
+        this.yaw = player.getYRot();
+        this.pitch = player.getXRot();
+        this.dimension = player.level().dimension().location();
+        
+        this.gameMode = player.gameMode.getGameModeForPlayer();
+        this.ping = player.connection != null ? player.connection.latency() : 0;
+        this.playTime = player.getStats().getValue(Stats.CUSTOM.get(Stats.PLAY_TIME));
+        
+        this.sneaking = player.isShiftKeyDown();
+        this.sprinting = player.isSprinting();
+        this.flying = player.getAbilities().flying;
+        this.swimming = player.isSwimming();
+        this.sleeping = player.isSleeping();
+        
+        this.armor = player.getArmorValue();
+        this.air = player.getAirSupply();
+        this.maxAir = player.getMaxAirSupply();
+    }
+    
+    /**
+     * Capture the current values of a player.
+     */
+    static PlayerSnapshot capture(ServerPlayer player, int tick) {
+        return new PlayerSnapshot(player, tick);
+    }
+    
+    /**
+     * Get the server tick this snapshot was taken at.
+     */
+    public int getTick() {
+        return tick;
+    }
+    
+    public float getHealth() {
+        return health;
+    }
+    
+    public float getMaxHealth() {
+        return maxHealth;
+    }
+    
+    public int getFood() {
+        return food;
+    }
+    
+    public float getSaturation() {
+        return saturation;
+    }
+    
+    public int getLevel() {
+        return level;
+    }
+    
+    public int getTotalExperience() {
+        return totalExperience;
+    }
+    
+    public int getExperienceToLevel() {
+        return experienceToLevel;
+    }
+    
+    public float getExperienceProgress() {
+        return experienceProgress;
+    }
+    
+    public double getX() {
+        return x;
+    }
+    
+    public double getY() {
+        return y;
+    }
+    
+    public double getZ() {
+        return z;
+    }
+    
+    public float getYaw() {
+        return yaw;
+    }
+    
+    public float getPitch() {
+        return pitch;
+    }
+    
+    public ResourceLocation getDimension() {
+        return dimension;
+    }
+    
+    public GameType getGameMode() {
+        return gameMode;
+    }
+    
+    public int getPing() {
+        return ping;
+    }
+    
+    /**
+     * Get the total playtime in ticks.
+     */
+    public int getPlayTime() {
+        return playTime;
+    }
+    
+    public boolean isSneaking() {
+        return sneaking;
+    }
+    
+    public boolean isSprinting() {
+        return sprinting;
+    }
+    
+    public boolean isFlying() {
+        return flying;
+    }
+    
+    public boolean isSwimming() {
+        return swimming;
+    }
+    
+    public boolean isSleeping() {
+        return sleeping;
+    }
+    
+    public int getArmor() {
+        return armor;
+    }
+    
+    public int getAir() {
+        return air;
+    }
+    
+    public int getMaxAir() {
+        return maxAir;
+    }
+    
+    // Formatted values
+    
+    public String getHealthText() {
+        String text = healthText;
+        if (text == null) {
+            healthText = text = String.format("%.1f", health);
+        }
+        return text;
+    }
+    
+    public String getMaxHealthText() {
+        String text = maxHealthText;
+        if (text == null) {
+            maxHealthText = text = String.format("%.1f", maxHealth);
+        }
+        return text;
+    }
+    
+    public String getHealthPercentText() {
+        String text = healthPercentText;
+        if (text == null) {
+            healthPercentText = text = String.format("%.0f", (health / maxHealth) * 100);
+        }
+        return text;
+    }
+    
+    public String getSaturationText() {
+        String text = saturationText;
+        if (text == null) {
+            saturationText = text = String.format("%.1f", saturation);
+        }
+        return text;
+    }
+    
+    public String getExperiencePercentText() {
+        String text = experiencePercentText;
+        if (text == null) {
+            experiencePercentText = text = String.format("%.0f", experienceProgress * 100);
+        }
+        return text;
+    }
+    
+    public String getXText() {
+        String text = xText;
+        if (text == null) {
+            xText = text = String.format("%.0f", x);
+        }
+        return text;
+    }
+    
+    public String getYText() {
+        String text = yText;
+        if (text == null) {
+            yText = text = String.format("%.0f", y);
+        }
+        return text;
+    }
+    
+    public String getZText() {
+        String text = zText;
+        if (text == null) {
+            zText = text = String.format("%.0f", z);
+        }
+        return text;
+    }
+    
+    public String getPreciseXText() {
+        String text = preciseXText;
+        if (text == null) {
+            preciseXText = text = String.format("%.2f", x);
+        }
+        return text;
+    }
+    
+    public String getPreciseYText() {
+        String text = preciseYText;
+        if (text == null) {
+            preciseYText = text = String.format("%.2f", y);
+        }
+        return text;
+    }
+    
+    public String getPreciseZText() {
+        String text = preciseZText;
+        if (text == null) {
+            preciseZText = text = String.format("%.2f", z);
+        }
+        return text;
+    }
+    
+    public String getYawText() {
+        String text = yawText;
+        if (text == null) {
+            yawText = text = String.format("%.1f", yaw);
+        }
+        return text;
+    }
+    
+    public String getPitchText() {
+        String text = pitchText;
+        if (text == null) {
+            pitchText = text = String.format("%.1f", pitch);
+        }
+        return text;
+    }
+    
+    /**
+     * Get the block position formatted as "x, y, z".
+     */
+    public String getLocationText() {
+        String text = locationText;
+        if (text == null) {
+            locationText = text = getXText() + ", " + getYText() + ", " + getZText();
+        }
+        return text;
+    }
+}
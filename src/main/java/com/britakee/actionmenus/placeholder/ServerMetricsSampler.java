@@ -0,0 +1,211 @@
+package com.britakee.actionmenus.placeholder;
+
+import net.minecraft.server.MinecraftServer;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+
+import java.util.Arrays;
+
+/**
+ * Samples server metrics once per tick so placeholders can read them
+ * without recomputing anything per lookup.
+ *
+ * Each tick a new immutable {@link Snapshot} is published through a volatile
+ * field, so readers on any thread see a consistent set of values without locking.
+ */
+public class ServerMetricsSampler {
+    
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    
+    // Scratch buffer for percentiles, only used on the server thread
+    private long[] sorted = new long[0];
+    
+    @SubscribeEvent
+    public void onServerTick(ServerTickEvent.Post event) {
+        sample(event.getServer());
+    }
+    
+    /**
+     * Take a new snapshot of the server's metrics.
+     */
+    public void sample(MinecraftServer server) {
+        long[] tickTimes = server.getTickTimesNanos();
+        if (sorted.length != tickTimes.length) {
+            sorted = new long[tickTimes.length];
+        }
+        
+        // Skip slots not filled yet after startup
+        int count = 0;
+        long sum = 0;
+        for (long time : tickTimes) {
+            if (time > 0) {
+                sorted[count++] = time;
+                sum += time;
+            }
+        }
+        
+        double msptMean = 0;
+        double msptP95 = 0;
+        double msptP99 = 0;
+        if (count > 0) {
+            Arrays.sort(sorted, 0, count);
+            msptMean = sum / (double) count / NANOS_PER_MILLI;
+            msptP95 = percentile(sorted, count, 0.95) / NANOS_PER_MILLI;
+            msptP99 = percentile(sorted, count, 0.99) / NANOS_PER_MILLI;
+        }
+        
+        Runtime runtime = Runtime.getRuntime();
+        long memoryTotal = runtime.totalMemory();
+        long memoryFree = runtime.freeMemory();
+        
+        snapshot = new Snapshot(
+                server.getTickCount(),
+                msptMean, msptP95, msptP99,
+                memoryTotal - memoryFree, memoryFree, memoryTotal, runtime.maxMemory(),
+                server.getPlayerCount(), server.getMaxPlayers(), server.levelKeys().size());
+    }
+    
+    /**
+     * Get the latest snapshot.
+     */
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+    
+    /**
+     * Forget the last snapshot, e.g. when the server stops.
+     */
+    public void reset() {
+        snapshot = Snapshot.EMPTY;
+    }
+    
+    /**
+     * Nearest-rank percentile of the first count sorted values.
+     */
+    private static long percentile(long[] sorted, int count, double fraction) {
+        int index = (int) Math.ceil(fraction * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, index))];
+    }
+    
+    /**
+     * Server metrics taken at the end of one tick.
+     * Formatted strings are created on first use and shared by all readers.
+     */
+    public static final class Snapshot {
+        
+        /** Snapshot used before the first sample */
+        public static final Snapshot EMPTY = new Snapshot(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+        
+        private final int tick;
+        private final double msptMean;
+        private final double msptP95;
+        private final double msptP99;
+        private final double tps;
+        private final long memoryUsed;
+        private final long memoryFree;
+        private final long memoryTotal;
+        private final long memoryMax;
+        private final int playerCount;
+        private final int maxPlayers;
+        private final int levelCount;
+        
+        // Lazily formatted values, racing writers produce equal strings
+        private String tpsText;
+        private String msptText;
+        
+        private Snapshot(int tick, double msptMean, double msptP95, double msptP99,
+                         long memoryUsed, long memoryFree, long memoryTotal, long memoryMax,
+                         int playerCount, int maxPlayers, int levelCount) {
+            this.tick = tick;
+            this.msptMean = msptMean;
+            this.msptP95 = msptP95;
+            this.msptP99 = msptP99;
+            // TPS is capped at 20
+            this.tps = msptMean <= 0 ? 20.0 : Math.min(20.0, 1000.0 / msptMean);
+            this.memoryUsed = memoryUsed;
+            this.memoryFree = memoryFree;
+            this.memoryTotal = memoryTotal;
+            this.memoryMax = memoryMax;
+            this.playerCount = playerCount;
+            this.maxPlayers = maxPlayers;
+            this.levelCount = levelCount;
+        }
+        
+        public int getTick() {
+            return tick;
+        }
+        
+        public double getTps() {
+            return tps;
+        }
+        
+        /**
+         * Get the mean tick time in milliseconds.
+         */
+        public double getMsptMean() {
+            return msptMean;
+        }
+        
+        public double getMsptP95() {
+            return msptP95;
+        }
+        
+        public double getMsptP99() {
+            return msptP99;
+        }
+        
+        public long getMemoryUsed() {
+            return memoryUsed;
+        }
+        
+        public long getMemoryFree() {
+            return memoryFree;
+        }
+        
+        public long getMemoryTotal() {
+            return memoryTotal;
+        }
+        
+        public long getMemoryMax() {
+            return memoryMax;
+        }
+        
+        public int getPlayerCount() {
+            return playerCount;
+        }
+        
+        public int getMaxPlayers() {
+            return maxPlayers;
+        }
+        
+        public int getLevelCount() {
+            return levelCount;
+        }
+        
+        /**
+         * Get the TPS formatted with one decimal.
+         */
+        public String getTpsText() {
+            String text = tpsText;
+            if (text == null) {
+                text = String.format("%.1f", tps);
+                tpsText = text;
+            }
+            return text;
+        }
+        
+        /**
+         * Get the mean tick time formatted with two decimals.
+         */
+        public String getMsptText() {
+            String text = msptText;
+            if (text == null) {
+                text = String.format("%.2f", msptMean);
+                msptText = text;
+            }
+            return text;
+        }
+    }
+}
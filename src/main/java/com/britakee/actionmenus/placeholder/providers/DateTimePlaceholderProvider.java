@@ -2,6 +2,7 @@ package com.britakee.actionmenus.placeholder.providers;
 
 import com.britakee.actionmenus.placeholder.PlaceholderContext;
 import com.britakee.actionmenus.placeholder.PlaceholderProvider;
+import com.britakee.actionmenus.placeholder.PlaceholderVolatility;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -34,19 +35,15 @@ public class DateTimePlaceholderProvider implements PlaceholderProvider {
         return "time";
     }
     
+    @Override
+    public String[] getAliases() {
+        return new String[] {"date", "datetime"};
+    }
+    
     @Override
     public String resolve(String placeholder, PlaceholderContext context) {
         LocalDateTime now = LocalDateTime.now();
-        String lowerPlaceholder = placeholder.toLowerCase();
-        
-        // Remove prefixes if present
-        if (lowerPlaceholder.startsWith("time_")) {
-            lowerPlaceholder = lowerPlaceholder.substring(5);
-        } else if (lowerPlaceholder.startsWith("date_")) {
-            lowerPlaceholder = lowerPlaceholder.substring(5);
-        } else if (lowerPlaceholder.startsWith("datetime_")) {
-            lowerPlaceholder = lowerPlaceholder.substring(9);
-        }
+        String lowerPlaceholder = normalize(placeholder);
         
         return switch (lowerPlaceholder) {
             // Time
@@ -126,16 +123,60 @@ public class DateTimePlaceholderProvider implements PlaceholderProvider {
         };
     }
     
+    /**
+     * Lowercase a placeholder and remove the time_/date_/datetime_ prefix if present.
+     */
+    private static String normalize(String placeholder) {
+        String lowerPlaceholder = placeholder.toLowerCase();
+        
+        if (lowerPlaceholder.startsWith("time_")) {
+            return lowerPlaceholder.substring(5);
+        } else if (lowerPlaceholder.startsWith("date_")) {
+            return lowerPlaceholder.substring(5);
+        } else if (lowerPlaceholder.startsWith("datetime_")) {
+            return lowerPlaceholder.substring(9);
+        }
+        return lowerPlaceholder;
+    }
+    
+    @Override
+    public boolean isSnapshotSafe(String placeholder) {
+        // Minecraft time is read from the player's world
+        return switch (normalize(placeholder)) {
+            case "minecraft_time", "mc_time", "minecraft_day", "mc_day", "is_day", "is_night" -> false;
+            default -> true;
+        };
+    }
+    
+    @Override
+    public boolean isViewerIndependent(String placeholder) {
+        // Minecraft time depends on the viewer's world
+        return isSnapshotSafe(placeholder);
+    }
+    
+    @Override
+    public PlaceholderVolatility getVolatility(String placeholder) {
+        return switch (normalize(placeholder)) {
+            case "timezone", "tz" -> PlaceholderVolatility.CONSTANT;
+            case "millisecond", "ms", "timestamp_ms", "unix_ms",
+                 "minecraft_time", "mc_time", "is_day", "is_night" -> PlaceholderVolatility.PER_TICK;
+            // Wall clock values change at most once per second
+            default -> PlaceholderVolatility.PER_SECOND;
+        };
+    }
+    
     @Override
     public String[] getPlaceholders() {
         return new String[] {
-                "hour", "hour12", "minute", "second", "ampm", "millisecond",
-                "day", "month", "month_name", "month_short", "year", "year_short",
-                "day_of_week", "day_of_week_short", "day_of_year", "week_of_year",
-                "formatted", "datetime", "iso", "us_date", "eu_date", "12hour", "24hour",
-                "timestamp", "timestamp_ms",
-                "minecraft_time", "minecraft_day", "is_day", "is_night",
-                "timezone", "timezone_offset"
+                "hour", "hours", "h", "hour12", "hours12", "h12", "minute", "minutes", "m",
+                "second", "seconds", "s", "ampm", "am_pm", "millisecond", "ms",
+                "day", "d", "day_of_month", "month", "month_number", "month_name", "month_short",
+                "year", "y", "year_short", "day_of_week", "day_of_week_short", "day_of_year", "week_of_year",
+                "formatted", "time_formatted", "date_formatted", "datetime", "datetime_formatted",
+                "iso", "us_date", "eu_date", "12hour", "24hour",
+                "timestamp", "unix", "timestamp_ms", "unix_ms",
+                "minecraft_time", "mc_time", "minecraft_day", "mc_day", "is_day", "is_night",
+                "timezone", "tz", "timezone_offset"
         };
     }
 }
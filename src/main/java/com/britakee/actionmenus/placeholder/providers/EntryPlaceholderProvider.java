@@ -0,0 +1,44 @@
+package com.britakee.actionmenus.placeholder.providers;
+
+import com.britakee.actionmenus.menu.ListEntry;
+import com.britakee.actionmenus.menu.MenuPagination;
+import com.britakee.actionmenus.menu.MenuSession;
+import com.britakee.actionmenus.placeholder.PlaceholderContext;
+import com.britakee.actionmenus.placeholder.PlaceholderProvider;
+import com.britakee.actionmenus.placeholder.PlaceholderVolatility;
+
+/**
+ * Provides the values of list entries.
+ * Slots showing a list entry fill these in from the entry they show; anywhere
+ * else, such as in click actions, they read the entry the player last clicked.
+ * 
+ * Supported placeholders:
+ * - entry_<field>: A field of the entry
+ * - entry_key: The entry's key
+ * - entry_index: Position in the list, from 0
+ * - entry_number: Position in the list, from 1
+ */
+public class EntryPlaceholderProvider implements PlaceholderProvider {
+    
+    @Override
+    public String getIdentifier() {
+        return MenuPagination.ENTRY_CATEGORY;
+    }
+    
+    @Override
+    public String resolve(String placeholder, PlaceholderContext context) {
+        MenuSession session = context.getSession();
+        if (session == null) {
+            return null;
+        }
+        
+        ListEntry entry = session.getSelectedEntry();
+        return entry != null ? entry.resolve(placeholder, session.getSelectedIndex()) : "";
+    }
+    
+    @Override
+    public PlaceholderVolatility getVolatility(String placeholder) {
+        // The selected entry only changes on click
+        return PlaceholderVolatility.EVENT_DRIVEN;
+    }
+}
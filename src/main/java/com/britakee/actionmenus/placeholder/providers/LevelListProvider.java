@@ -0,0 +1,53 @@
+package com.britakee.actionmenus.placeholder.providers;
+
+import com.britakee.actionmenus.menu.ListEntry;
+import com.britakee.actionmenus.placeholder.ListProvider;
+import com.britakee.actionmenus.placeholder.PlaceholderContext;
+import com.britakee.actionmenus.placeholder.PlaceholderManager;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lists the loaded levels (dimensions).
+ * 
+ * Entry fields:
+ * - id: Dimension id, also the entry key
+ * - name: Dimension name without the namespace
+ * - players: Number of players in the level
+ */
+public class LevelListProvider implements ListProvider {
+    
+    private final PlaceholderManager placeholderManager;
+    
+    public LevelListProvider(PlaceholderManager placeholderManager) {
+        this.placeholderManager = placeholderManager;
+    }
+    
+    @Override
+    public String getIdentifier() {
+        return "worlds";
+    }
+    
+    @Override
+    public List<ListEntry> getEntries(String argument, PlaceholderContext context) {
+        MinecraftServer server = placeholderManager.getServer();
+        if (server == null) {
+            return List.of();
+        }
+        
+        List<ListEntry> entries = new ArrayList<>();
+        for (ServerLevel level : server.getAllLevels()) {
+            ResourceLocation id = level.dimension().location();
+            entries.add(new ListEntry(id.toString(), Map.of(
+                    "id", id.toString(),
+                    "name", id.getPath(),
+                    "players", String.valueOf(level.players().size()))));
+        }
+        return entries;
+    }
+}
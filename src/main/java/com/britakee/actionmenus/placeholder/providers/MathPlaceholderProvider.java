@@ -1,27 +1,46 @@
 package com.britakee.actionmenus.placeholder.providers;
 
+import com.britakee.actionmenus.ActionMenus;
+import com.britakee.actionmenus.placeholder.MathExpression;
 import com.britakee.actionmenus.placeholder.PlaceholderContext;
+import com.britakee.actionmenus.placeholder.PlaceholderManager;
 import com.britakee.actionmenus.placeholder.PlaceholderProvider;
+import com.britakee.actionmenus.placeholder.PlaceholderReference;
+import com.britakee.actionmenus.placeholder.PlaceholderVolatility;
 
-import java.util.Stack;
-import java.util.regex.Pattern;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Provides math expression evaluation placeholders.
+ * Expressions are compiled once by {@link MathExpression} and cached.
  * 
  * Usage: %math_<expression>%
  * Examples:
- *   %math_5+3%         = 8
- *   %math_10/2%        = 5
- *   %math_2*3+4%       = 10
- *   %math_(2+3)*4%     = 20
- *   %math_round(3.7)%  = 4
- *   %math_floor(3.7)%  = 3
- *   %math_ceil(3.2)%   = 4
+ *   %math_5+3%                  = 8
+ *   %math_10/2%                 = 5
+ *   %math_2*3+4%                = 10
+ *   %math_(2+3)*4%              = 20
+ *   %math_round(3.7)%           = 4
+ *   %math_floor(3.7)%           = 3
+ *   %math_ceil(3.2)%            = 4
+ *   %math_max(2,pow(2,3))%      = 8
+ *   %math_{player_level}*10%    = ten times the player's level
+ * 
+ * Invalid expressions are reported once and shown as written.
  */
 public class MathPlaceholderProvider implements PlaceholderProvider {
     
-    private static final Pattern NUMBER_PATTERN = Pattern.compile("-?\\d+(\\.\\d+)?");
+    private static final int MAX_REPORTED = 1000;
+    
+    // Invalid expressions already reported, so each is logged once
+    private final Set<String> reportedInvalid = ConcurrentHashMap.newKeySet();
+    
+    private final PlaceholderManager placeholderManager;
+    
+    public MathPlaceholderProvider(PlaceholderManager placeholderManager) {
+        this.placeholderManager = placeholderManager;
+    }
     
     @Override
     public String getIdentifier() {
@@ -30,231 +49,90 @@ public class MathPlaceholderProvider implements PlaceholderProvider {
     
     @Override
     public String resolve(String placeholder, PlaceholderContext context) {
-        String lowerPlaceholder = placeholder.toLowerCase();
+        MathExpression expression = compile(placeholder);
+        if (expression == null) {
+            // Shown as written, so the mistake is visible in the menu
+            return null;
+        }
         
+        double result = expression.evaluate(reference -> placeholderManager.resolve(reference, context));
+        return MathExpression.format(result);
+    }
+    
+    /**
+     * Compile an expression, or return null if it is invalid.
+     */
+    private MathExpression compile(String placeholder) {
         // Remove "math_" prefix if present
-        String expression = lowerPlaceholder;
-        if (expression.startsWith("math_")) {
+        String expression = placeholder;
+        if (expression.regionMatches(true, 0, "math_", 0, 5)) {
             expression = expression.substring(5);
         }
         
-        // Handle special functions
-        if (expression.startsWith("round(") && expression.endsWith(")")) {
-            String inner = expression.substring(6, expression.length() - 1);
-            try {
-                double value = evaluate(inner);
-                return String.valueOf(Math.round(value));
-            } catch (Exception e) {
-                return "0";
-            }
-        }
-        
-        if (expression.startsWith("floor(") && expression.endsWith(")")) {
-            String inner = expression.substring(6, expression.length() - 1);
-            try {
-                double value = evaluate(inner);
-                return String.valueOf((long) Math.floor(value));
-            } catch (Exception e) {
-                return "0";
-            }
-        }
-        
-        if (expression.startsWith("ceil(") && expression.endsWith(")")) {
-            String inner = expression.substring(5, expression.length() - 1);
-            try {
-                double value = evaluate(inner);
-                return String.valueOf((long) Math.ceil(value));
-            } catch (Exception e) {
-                return "0";
-            }
-        }
-        
-        if (expression.startsWith("abs(") && expression.endsWith(")")) {
-            String inner = expression.substring(4, expression.length() - 1);
-            try {
-                double value = evaluate(inner);
-                return formatNumber(Math.abs(value));
-            } catch (Exception e) {
-                return "0";
-            }
-        }
-        
-        if (expression.startsWith("sqrt(") && expression.endsWith(")")) {
-            String inner = expression.substring(5, expression.length() - 1);
-            try {
-                double value = evaluate(inner);
-                return formatNumber(Math.sqrt(value));
-            } catch (Exception e) {
-                return "0";
-            }
-        }
-        
-        if (expression.startsWith("pow(") && expression.endsWith(")")) {
-            String inner = expression.substring(4, expression.length() - 1);
-            String[] parts = inner.split(",");
-            if (parts.length == 2) {
-                try {
-                    double base = evaluate(parts[0].trim());
-                    double exp = evaluate(parts[1].trim());
-                    return formatNumber(Math.pow(base, exp));
-                } catch (Exception e) {
-                    return "0";
-                }
-            }
-        }
-        
-        if (expression.startsWith("min(") && expression.endsWith(")")) {
-            String inner = expression.substring(4, expression.length() - 1);
-            String[] parts = inner.split(",");
-            if (parts.length >= 2) {
-                try {
-                    double min = Double.MAX_VALUE;
-                    for (String part : parts) {
-                        min = Math.min(min, evaluate(part.trim()));
-                    }
-                    return formatNumber(min);
-                } catch (Exception e) {
-                    return "0";
-                }
-            }
-        }
-        
-        if (expression.startsWith("max(") && expression.endsWith(")")) {
-            String inner = expression.substring(4, expression.length() - 1);
-            String[] parts = inner.split(",");
-            if (parts.length >= 2) {
-                try {
-                    double max = Double.MIN_VALUE;
-                    for (String part : parts) {
-                        max = Math.max(max, evaluate(part.trim()));
-                    }
-                    return formatNumber(max);
-                } catch (Exception e) {
-                    return "0";
-                }
+        try {
+            return MathExpression.compile(expression);
+        } catch (IllegalArgumentException e) {
+            // Guards against unbounded ad hoc input, like the expression cache
+            if (reportedInvalid.size() >= MAX_REPORTED) {
+                reportedInvalid.clear();
             }
-        }
-        
-        if (expression.equals("random") || expression.equals("rand")) {
-            return formatNumber(Math.random());
-        }
-        
-        if (expression.startsWith("random(") && expression.endsWith(")")) {
-            String inner = expression.substring(7, expression.length() - 1);
-            String[] parts = inner.split(",");
-            if (parts.length == 2) {
-                try {
-                    int min = (int) evaluate(parts[0].trim());
-                    int max = (int) evaluate(parts[1].trim());
-                    return String.valueOf(min + (int) (Math.random() * (max - min + 1)));
-                } catch (Exception e) {
-                    return "0";
-                }
+            if (reportedInvalid.add(expression)) {
+                ActionMenus.LOGGER.warn("Invalid math expression '{}': {}", expression, e.getMessage());
             }
+            return null;
         }
-        
-        // Regular math expression
-        try {
-            double result = evaluate(expression);
-            return formatNumber(result);
-        } catch (Exception e) {
-            return "0";
-        }
-    }
-    
-    /**
-     * Evaluate a mathematical expression.
-     * Supports: +, -, *, /, %, ^, ()
-     */
-    private double evaluate(String expression) {
-        expression = expression.replaceAll("\\s+", "");
-        return parseExpression(expression, new int[]{0});
     }
     
-    private double parseExpression(String expr, int[] pos) {
-        double result = parseTerm(expr, pos);
-        
-        while (pos[0] < expr.length()) {
-            char op = expr.charAt(pos[0]);
-            if (op != '+' && op != '-') break;
-            pos[0]++;
-            double term = parseTerm(expr, pos);
-            result = (op == '+') ? result + term : result - term;
+    @Override
+    public PlaceholderVolatility getVolatility(String placeholder) {
+        MathExpression expression = compile(placeholder);
+        if (expression == null) {
+            return PlaceholderVolatility.CONSTANT;
+        }
+        
+        // Expressions are pure, only random() and variables change between renders
+        PlaceholderVolatility volatility = expression.isRandom() ? PlaceholderVolatility.PER_TICK : PlaceholderVolatility.CONSTANT;
+        for (PlaceholderReference variable : expression.getVariables()) {
+            PlaceholderVolatility variableVolatility = placeholderManager.getVolatility(variable);
+            
+            // Events only mark their own placeholders changed, so poll expressions using them
+            if (variableVolatility == PlaceholderVolatility.EVENT_DRIVEN) {
+                variableVolatility = PlaceholderVolatility.PER_SECOND;
+            }
+            volatility = volatility.max(variableVolatility);
         }
-        
-        return result;
+        return volatility;
     }
     
-    private double parseTerm(String expr, int[] pos) {
-        double result = parseFactor(expr, pos);
-        
-        while (pos[0] < expr.length()) {
-            char op = expr.charAt(pos[0]);
-            if (op != '*' && op != '/' && op != '%') break;
-            pos[0]++;
-            double factor = parseFactor(expr, pos);
-            if (op == '*') result *= factor;
-            else if (op == '/') result /= factor;
-            else result %= factor;
+    @Override
+    public boolean isSnapshotSafe(String placeholder) {
+        MathExpression expression = compile(placeholder);
+        if (expression == null) {
+            return true;
         }
         
-        return result;
-    }
-    
-    private double parseFactor(String expr, int[] pos) {
-        double result = parsePower(expr, pos);
-        
-        while (pos[0] < expr.length() && expr.charAt(pos[0]) == '^') {
-            pos[0]++;
-            double power = parsePower(expr, pos);
-            result = Math.pow(result, power);
+        // Expressions are as safe as the placeholders they read
+        for (PlaceholderReference variable : expression.getVariables()) {
+            if (!placeholderManager.isSnapshotSafe(variable)) {
+                return false;
+            }
         }
-        
-        return result;
+        return true;
     }
     
-    private double parsePower(String expr, int[] pos) {
-        if (pos[0] >= expr.length()) return 0;
-        
-        char c = expr.charAt(pos[0]);
-        
-        // Handle unary minus
-        if (c == '-') {
-            pos[0]++;
-            return -parsePower(expr, pos);
-        }
-        
-        // Handle parentheses
-        if (c == '(') {
-            pos[0]++;
-            double result = parseExpression(expr, pos);
-            if (pos[0] < expr.length() && expr.charAt(pos[0]) == ')') {
-                pos[0]++;
-            }
-            return result;
+    @Override
+    public boolean isViewerIndependent(String placeholder) {
+        MathExpression expression = compile(placeholder);
+        if (expression == null) {
+            return true;
         }
         
-        // Parse number
-        StringBuilder numStr = new StringBuilder();
-        while (pos[0] < expr.length()) {
-            c = expr.charAt(pos[0]);
-            if (Character.isDigit(c) || c == '.') {
-                numStr.append(c);
-                pos[0]++;
-            } else {
-                break;
+        for (PlaceholderReference variable : expression.getVariables()) {
+            if (!placeholderManager.isViewerIndependent(variable)) {
+                return false;
             }
         }
-        
-        if (numStr.length() == 0) return 0;
-        return Double.parseDouble(numStr.toString());
-    }
-    
-    private String formatNumber(double value) {
-        if (value == (long) value) {
-            return String.valueOf((long) value);
-        }
-        return String.format("%.2f", value);
+        return true;
     }
     
     @Override
@@ -262,7 +140,7 @@ public class MathPlaceholderProvider implements PlaceholderProvider {
         return new String[] {
                 "<expression>", "round(<expr>)", "floor(<expr>)", "ceil(<expr>)",
                 "abs(<expr>)", "sqrt(<expr>)", "pow(<base>,<exp>)",
-                "min(<a>,<b>)", "max(<a>,<b>)", "random", "random(<min>,<max>)"
+                "min(<a>,<b>,...)", "max(<a>,<b>,...)", "random", "random(<min>,<max>)", "{<placeholder>}"
         };
     }
 }
@@ -0,0 +1,80 @@
+package com.britakee.actionmenus.placeholder.providers;
+
+import com.britakee.actionmenus.menu.ListEntry;
+import com.britakee.actionmenus.placeholder.ListProvider;
+import com.britakee.actionmenus.placeholder.PlaceholderContext;
+import com.britakee.actionmenus.placeholder.PlaceholderManager;
+import com.britakee.actionmenus.placeholder.PlaceholderVolatility;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.neoforge.event.entity.player.PlayerEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lists the online players, in the order they joined.
+ * 
+ * Entry fields:
+ * - name: Player name
+ * - uuid: Player UUID, also the entry key
+ * - world: Current dimension name
+ */
+public class PlayerListProvider implements ListProvider {
+    
+    private final PlaceholderManager placeholderManager;
+    
+    public PlayerListProvider(PlaceholderManager placeholderManager) {
+        this.placeholderManager = placeholderManager;
+    }
+    
+    @Override
+    public String getIdentifier() {
+        return "players";
+    }
+    
+    @Override
+    public List<ListEntry> getEntries(String argument, PlaceholderContext context) {
+        MinecraftServer server = placeholderManager.getServer();
+        if (server == null) {
+            return List.of();
+        }
+        
+        List<ServerPlayer> players = server.getPlayerList().getPlayers();
+        List<ListEntry> entries = new ArrayList<>(players.size());
+        for (ServerPlayer player : players) {
+            String uuid = player.getUUID().toString();
+            entries.add(new ListEntry(uuid, Map.of(
+                    "name", player.getName().getString(),
+                    "uuid", uuid,
+                    "world", player.level().dimension().location().getPath())));
+        }
+        return entries;
+    }
+    
+    @Override
+    public PlaceholderVolatility getVolatility(String argument) {
+        return PlaceholderVolatility.EVENT_DRIVEN;
+    }
+    
+    @SubscribeEvent
+    public void onPlayerLogin(PlayerEvent.PlayerLoggedInEvent event) {
+        markChanged();
+    }
+    
+    @SubscribeEvent
+    public void onPlayerLogout(PlayerEvent.PlayerLoggedOutEvent event) {
+        markChanged();
+    }
+    
+    @SubscribeEvent
+    public void onDimensionChange(PlayerEvent.PlayerChangedDimensionEvent event) {
+        markChanged();
+    }
+    
+    private void markChanged() {
+        placeholderManager.markListChanged(null, getIdentifier());
+    }
+}
@@ -1,9 +1,20 @@
 package com.britakee.actionmenus.placeholder.providers;
 
 import com.britakee.actionmenus.placeholder.PlaceholderContext;
+import com.britakee.actionmenus.placeholder.PlaceholderManager;
 import com.britakee.actionmenus.placeholder.PlaceholderProvider;
+import com.britakee.actionmenus.placeholder.PlaceholderVolatility;
+import com.britakee.actionmenus.placeholder.PlayerSnapshot;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.level.GameType;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.neoforge.event.entity.living.LivingDamageEvent;
+import net.neoforged.neoforge.event.entity.living.LivingEntityUseItemEvent;
+import net.neoforged.neoforge.event.entity.living.LivingHealEvent;
+import net.neoforged.neoforge.event.entity.player.PlayerEvent;
+import net.neoforged.neoforge.event.entity.player.PlayerXpEvent;
+
+import java.util.Set;
 
 /**
  * Provides player-related placeholders.
@@ -26,6 +37,25 @@ import net.minecraft.world.level.GameType;
  */
 public class PlayerPlaceholderProvider implements PlaceholderProvider {
     
+    // Placeholders invalidated by each kind of game event
+    private static final Set<String> HEALTH_PLACEHOLDERS = Set.of(
+            "health", "player_health", "health_percent", "player_health_percent");
+    private static final Set<String> FOOD_PLACEHOLDERS = Set.of(
+            "food", "player_food", "hunger", "saturation", "player_saturation");
+    private static final Set<String> EXP_PLACEHOLDERS = Set.of(
+            "level", "player_level", "exp_level", "exp", "player_exp", "experience",
+            "exp_to_level", "player_exp_to_level", "exp_percent", "player_exp_percent");
+    private static final Set<String> GAMEMODE_PLACEHOLDERS = Set.of(
+            "gamemode", "player_gamemode", "is_creative", "is_spectator", "is_survival");
+    private static final Set<String> WORLD_PLACEHOLDERS = Set.of(
+            "world", "player_world", "dimension", "world_name", "player_world_name");
+    
+    private final PlaceholderManager placeholderManager;
+    
+    public PlayerPlaceholderProvider(PlaceholderManager placeholderManager) {
+        this.placeholderManager = placeholderManager;
+    }
+    
     @Override
     public String getIdentifier() {
         return "player";
@@ -40,69 +70,72 @@ public class PlayerPlaceholderProvider implements PlaceholderProvider {
         ServerPlayer player = context.getPlayer();
         String lowerPlaceholder = placeholder.toLowerCase();
         
+        // Identity and held items are read directly, everything else from this tick's snapshot
+        switch (lowerPlaceholder) {
+            case "name", "player_name", "displayname" -> {
+                return player.getName().getString();
+            }
+            case "uuid", "player_uuid" -> {
+                return player.getUUID().toString();
+            }
+            case "main_hand", "player_main_hand" -> {
+                return player.getMainHandItem().getHoverName().getString();
+            }
+            case "off_hand", "player_off_hand" -> {
+                return player.getOffhandItem().getHoverName().getString();
+            }
+        }
+        
+        PlayerSnapshot snapshot = placeholderManager.getPlayerSnapshot(context);
+        
         return switch (lowerPlaceholder) {
-            case "name", "player_name", "displayname" -> player.getName().getString();
-            case "uuid", "player_uuid" -> player.getUUID().toString();
-            
-            case "health", "player_health" -> String.format("%.1f", player.getHealth());
-            case "max_health", "player_max_health", "maxhealth" -> String.format("%.1f", player.getMaxHealth());
-            case "health_percent", "player_health_percent" -> 
-                    String.format("%.0f", (player.getHealth() / player.getMaxHealth()) * 100);
+            case "health", "player_health" -> snapshot.getHealthText();
+            case "max_health", "player_max_health", "maxhealth" -> snapshot.getMaxHealthText();
+            case "health_percent", "player_health_percent" -> snapshot.getHealthPercentText();
             
-            case "food", "player_food", "hunger" -> String.valueOf(player.getFoodData().getFoodLevel());
-            case "saturation", "player_saturation" -> String.format("%.1f", player.getFoodData().getSaturationLevel());
+            case "food", "player_food", "hunger" -> String.valueOf(snapshot.getFood());
+            case "saturation", "player_saturation" -> snapshot.getSaturationText();
             
-            case "level", "player_level", "exp_level" -> String.valueOf(player.experienceLevel);
-            case "exp", "player_exp", "experience" -> String.valueOf(player.totalExperience);
-            case "exp_to_level", "player_exp_to_level" -> String.valueOf(player.getXpNeededForNextLevel());
-            case "exp_percent", "player_exp_percent" -> String.format("%.0f", player.experienceProgress * 100);
+            case "level", "player_level", "exp_level" -> String.valueOf(snapshot.getLevel());
+            case "exp", "player_exp", "experience" -> String.valueOf(snapshot.getTotalExperience());
+            case "exp_to_level", "player_exp_to_level" -> String.valueOf(snapshot.getExperienceToLevel());
+            case "exp_percent", "player_exp_percent" -> snapshot.getExperiencePercentText();
             
-            case "x", "player_x" -> String.format("%.0f", player.getX());
-            case "y", "player_y" -> String.format("%.0f", player.getY());
-            case "z", "player_z" -> String.format("%.0f", player.getZ());
-            case "x_precise", "player_x_precise" -> String.format("%.2f", player.getX());
-            case "y_precise", "player_y_precise" -> String.format("%.2f", player.getY());
-            case "z_precise", "player_z_precise" -> String.format("%.2f", player.getZ());
-            case "yaw", "player_yaw" -> String.format("%.1f", player.getYRot());
-            case "pitch", "player_pitch" -> String.format("%.1f", player.getXRot());
-            case "location", "player_location" -> 
-                    String.format("%.0f, %.0f, %.0f", player.getX(), player.getY(), player.getZ());
+            case "x", "player_x" -> snapshot.getXText();
+            case "y", "player_y" -> snapshot.getYText();
+            case "z", "player_z" -> snapshot.getZText();
+            case "x_precise", "player_x_precise" -> snapshot.getPreciseXText();
+            case "y_precise", "player_y_precise" -> snapshot.getPreciseYText();
+            case "z_precise", "player_z_precise" -> snapshot.getPreciseZText();
+            case "yaw", "player_yaw" -> snapshot.getYawText();
+            case "pitch", "player_pitch" -> snapshot.getPitchText();
+            case "location", "player_location" -> snapshot.getLocationText();
             
-            case "world", "player_world", "dimension" -> 
-                    player.level().dimension().location().toString();
-            case "world_name", "player_world_name" -> 
-                    player.level().dimension().location().getPath();
+            case "world", "player_world", "dimension" -> snapshot.getDimension().toString();
+            case "world_name", "player_world_name" -> snapshot.getDimension().getPath();
             
-            case "gamemode", "player_gamemode" -> getGameModeName(player.gameMode.getGameModeForPlayer());
-            case "is_creative" -> String.valueOf(player.isCreative());
-            case "is_spectator" -> String.valueOf(player.isSpectator());
-            case "is_survival" -> String.valueOf(player.gameMode.getGameModeForPlayer() == GameType.SURVIVAL);
+            case "gamemode", "player_gamemode" -> getGameModeName(snapshot.getGameMode());
+            case "is_creative" -> String.valueOf(snapshot.getGameMode() == GameType.CREATIVE);
+            case "is_spectator" -> String.valueOf(snapshot.getGameMode() == GameType.SPECTATOR);
+            case "is_survival" -> String.valueOf(snapshot.getGameMode() == GameType.SURVIVAL);
             
-            case "ping", "player_ping" -> String.valueOf(player.connection.latency());
+            case "ping", "player_ping" -> String.valueOf(snapshot.getPing());
             
-            case "playtime", "player_playtime" -> String.valueOf(player.getStats().getValue(
-                    net.minecraft.stats.Stats.CUSTOM.get(net.minecraft.stats.Stats.PLAY_TIME)));
-            case "playtime_formatted", "player_playtime_formatted" -> formatPlaytime(player.getStats().getValue(
-                    net.minecraft.stats.Stats.CUSTOM.get(net.minecraft.stats.Stats.PLAY_TIME)));
-            case "playtime_seconds" -> String.valueOf(player.getStats().getValue(
-                    net.minecraft.stats.Stats.CUSTOM.get(net.minecraft.stats.Stats.PLAY_TIME)) / 20);
-            case "playtime_minutes" -> String.valueOf(player.getStats().getValue(
-                    net.minecraft.stats.Stats.CUSTOM.get(net.minecraft.stats.Stats.PLAY_TIME)) / 20 / 60);
-            case "playtime_hours" -> String.valueOf(player.getStats().getValue(
-                    net.minecraft.stats.Stats.CUSTOM.get(net.minecraft.stats.Stats.PLAY_TIME)) / 20 / 60 / 60);
+            case "playtime", "player_playtime" -> String.valueOf(snapshot.getPlayTime());
+            case "playtime_formatted", "player_playtime_formatted" -> formatPlaytime(snapshot.getPlayTime());
+            case "playtime_seconds" -> String.valueOf(snapshot.getPlayTime() / 20);
+            case "playtime_minutes" -> String.valueOf(snapshot.getPlayTime() / 20 / 60);
+            case "playtime_hours" -> String.valueOf(snapshot.getPlayTime() / 20 / 60 / 60);
             
-            case "is_sneaking" -> String.valueOf(player.isShiftKeyDown());
-            case "is_sprinting" -> String.valueOf(player.isSprinting());
-            case "is_flying" -> String.valueOf(player.getAbilities().flying);
-            case "is_swimming" -> String.valueOf(player.isSwimming());
-            case "is_sleeping" -> String.valueOf(player.isSleeping());
+            case "is_sneaking" -> String.valueOf(snapshot.isSneaking());
+            case "is_sprinting" -> String.valueOf(snapshot.isSprinting());
+            case "is_flying" -> String.valueOf(snapshot.isFlying());
+            case "is_swimming" -> String.valueOf(snapshot.isSwimming());
+            case "is_sleeping" -> String.valueOf(snapshot.isSleeping());
             
-            case "armor", "player_armor" -> String.valueOf(player.getArmorValue());
-            case "air", "player_air" -> String.valueOf(player.getAirSupply());
-            case "max_air", "player_max_air" -> String.valueOf(player.getMaxAirSupply());
-            
-            case "main_hand", "player_main_hand" -> player.getMainHandItem().getHoverName().getString();
-            case "off_hand", "player_off_hand" -> player.getOffhandItem().getHoverName().getString();
+            case "armor", "player_armor" -> String.valueOf(snapshot.getArmor());
+            case "air", "player_air" -> String.valueOf(snapshot.getAir());
+            case "max_air", "player_max_air" -> String.valueOf(snapshot.getMaxAir());
             
             default -> null;
         };
@@ -138,13 +171,105 @@ public class PlayerPlaceholderProvider implements PlaceholderProvider {
         }
     }
     
+    @Override
+    public boolean isSnapshotSafe(String placeholder) {
+        // Held items are read from the live inventory
+        return switch (placeholder.toLowerCase()) {
+            case "main_hand", "player_main_hand", "off_hand", "player_off_hand" -> false;
+            default -> true;
+        };
+    }
+    
+    @Override
+    public PlaceholderVolatility getVolatility(String placeholder) {
+        return switch (placeholder.toLowerCase()) {
+            case "name", "player_name", "displayname", "uuid", "player_uuid" -> PlaceholderVolatility.PER_SESSION;
+            case "health", "player_health",
+                 "world", "player_world", "dimension", "world_name", "player_world_name",
+                 "gamemode", "player_gamemode", "is_creative", "is_spectator", "is_survival" ->
+                    PlaceholderVolatility.EVENT_DRIVEN;
+            // Also changed by effects and exhaustion, which fire no event
+            case "max_health", "player_max_health", "maxhealth", "health_percent", "player_health_percent",
+                 "food", "player_food", "hunger", "saturation", "player_saturation" -> PlaceholderVolatility.PER_SECOND;
+            // Also changed by /xp set, enchanting and anvils, which fire no XP event;
+            // the XP events still refresh them right away
+            case "level", "player_level", "exp_level", "exp", "player_exp", "experience",
+                 "exp_to_level", "player_exp_to_level", "exp_percent", "player_exp_percent" ->
+                    PlaceholderVolatility.PER_SECOND;
+            case "ping", "player_ping", "playtime", "player_playtime", "playtime_formatted", "player_playtime_formatted",
+                 "playtime_seconds", "playtime_minutes", "playtime_hours" -> PlaceholderVolatility.PER_SECOND;
+            default -> PlaceholderVolatility.PER_TICK;
+        };
+    }
+    
+    @SubscribeEvent
+    public void onDamage(LivingDamageEvent.Post event) {
+        if (event.getEntity() instanceof ServerPlayer player) {
+            markChanged(player, HEALTH_PLACEHOLDERS);
+        }
+    }
+    
+    @SubscribeEvent
+    public void onHeal(LivingHealEvent event) {
+        if (event.getEntity() instanceof ServerPlayer player) {
+            markChanged(player, HEALTH_PLACEHOLDERS);
+        }
+    }
+    
+    @SubscribeEvent
+    public void onItemUseFinish(LivingEntityUseItemEvent.Finish event) {
+        if (event.getEntity() instanceof ServerPlayer player) {
+            markChanged(player, FOOD_PLACEHOLDERS);
+        }
+    }
+    
+    @SubscribeEvent
+    public void onXpChange(PlayerXpEvent.XpChange event) {
+        if (event.getEntity() instanceof ServerPlayer player) {
+            markChanged(player, EXP_PLACEHOLDERS);
+        }
+    }
+    
+    @SubscribeEvent
+    public void onLevelChange(PlayerXpEvent.LevelChange event) {
+        if (event.getEntity() instanceof ServerPlayer player) {
+            markChanged(player, EXP_PLACEHOLDERS);
+        }
+    }
+    
+    @SubscribeEvent
+    public void onGameModeChange(PlayerEvent.PlayerChangeGameModeEvent event) {
+        if (event.getEntity() instanceof ServerPlayer player) {
+            markChanged(player, GAMEMODE_PLACEHOLDERS);
+        }
+    }
+    
+    @SubscribeEvent
+    public void onDimensionChange(PlayerEvent.PlayerChangedDimensionEvent event) {
+        if (event.getEntity() instanceof ServerPlayer player) {
+            markChanged(player, WORLD_PLACEHOLDERS);
+        }
+    }
+    
+    @SubscribeEvent
+    public void onRespawn(PlayerEvent.PlayerRespawnEvent event) {
+        if (event.getEntity() instanceof ServerPlayer player) {
+            // Everything can change on respawn
+            markChanged(player, null);
+        }
+    }
+    
+    private void markChanged(ServerPlayer player, Set<String> placeholders) {
+        placeholderManager.markChanged(player.getUUID(), getIdentifier(), placeholders);
+    }
+    
     @Override
     public String[] getPlaceholders() {
         return new String[] {
-                "name", "uuid", "health", "max_health", "health_percent",
-                "food", "saturation", "level", "exp", "exp_to_level", "exp_percent",
+                "name", "displayname", "uuid", "health", "max_health", "maxhealth", "health_percent",
+                "food", "hunger", "saturation", "level", "exp_level", "exp", "experience", "exp_to_level", "exp_percent",
                 "x", "y", "z", "x_precise", "y_precise", "z_precise", "yaw", "pitch", "location",
-                "world", "world_name", "gamemode", "is_creative", "is_spectator", "is_survival",
+                "world", "dimension", "world_name", "gamemode", "is_creative", "is_spectator", "is_survival",
                 "ping", "playtime", "playtime_formatted", "playtime_seconds", "playtime_minutes", "playtime_hours",
                 "is_sneaking", "is_sprinting", "is_flying", "is_swimming", "is_sleeping",
                 "armor", "air", "max_air", "main_hand", "off_hand"
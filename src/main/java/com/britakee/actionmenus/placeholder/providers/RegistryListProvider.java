@@ -0,0 +1,96 @@
+package com.britakee.actionmenus.placeholder.providers;
+
+import com.britakee.actionmenus.ActionMenus;
+import com.britakee.actionmenus.menu.ListEntry;
+import com.britakee.actionmenus.placeholder.ListProvider;
+import com.britakee.actionmenus.placeholder.PlaceholderContext;
+import com.britakee.actionmenus.placeholder.PlaceholderManager;
+import com.britakee.actionmenus.placeholder.PlaceholderVolatility;
+import net.minecraft.core.Registry;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lists the entries of a registry, sorted by id.
+ * The argument is the registry id, e.g. "registry minecraft:enchantment".
+ * Registries don't change while a server runs, so each is listed once per server.
+ * Datapack registries differ between worlds, so the lists are dropped when the server changes.
+ * 
+ * Entry fields:
+ * - id: Entry id, also the entry key
+ * - namespace: Namespace of the id
+ * - path: Id without the namespace
+ */
+public class RegistryListProvider implements ListProvider {
+    
+    private final PlaceholderManager placeholderManager;
+    
+    // Entries by registry id, listed from cacheServer
+    private final Map<String, List<ListEntry>> cache = new ConcurrentHashMap<>();
+    private MinecraftServer cacheServer;
+    
+    public RegistryListProvider(PlaceholderManager placeholderManager) {
+        this.placeholderManager = placeholderManager;
+    }
+    
+    @Override
+    public String getIdentifier() {
+        return "registry";
+    }
+    
+    @Override
+    public List<ListEntry> getEntries(String argument, PlaceholderContext context) {
+        MinecraftServer server = placeholderManager.getServer();
+        if (server == null) {
+            return List.of();
+        }
+        if (server != cacheServer) {
+            cache.clear();
+            cacheServer = server;
+        }
+        
+        // Unknown registries are not cached, they are reported each time they are listed
+        List<ListEntry> entries = cache.computeIfAbsent(argument.trim().toLowerCase(), id -> listRegistry(server, id));
+        return entries != null ? entries : List.of();
+    }
+    
+    /**
+     * List a registry, or return null if there is no such registry.
+     */
+    private List<ListEntry> listRegistry(MinecraftServer server, String registryId) {
+        ResourceLocation location = ResourceLocation.tryParse(registryId);
+        if (location == null) {
+            ActionMenus.LOGGER.warn("Invalid registry id: {}", registryId);
+            return null;
+        }
+        
+        Optional<? extends Registry<?>> registry = server.registryAccess().registry(ResourceKey.createRegistryKey(location));
+        if (registry.isEmpty()) {
+            ActionMenus.LOGGER.warn("Unknown registry: {}", registryId);
+            return null;
+        }
+        
+        List<ResourceLocation> ids = new ArrayList<>(registry.get().keySet());
+        ids.sort(null);
+        List<ListEntry> entries = new ArrayList<>(ids.size());
+        for (ResourceLocation id : ids) {
+            entries.add(new ListEntry(id.toString(), Map.of(
+                    "id", id.toString(),
+                    "namespace", id.getNamespace(),
+                    "path", id.getPath())));
+        }
+        return List.copyOf(entries);
+    }
+    
+    @Override
+    public PlaceholderVolatility getVolatility(String argument) {
+        return PlaceholderVolatility.CONSTANT;
+    }
+}
@@ -1,8 +1,15 @@
 package com.britakee.actionmenus.placeholder.providers;
 
+import com.britakee.actionmenus.ActionMenus;
 import com.britakee.actionmenus.placeholder.PlaceholderContext;
+import com.britakee.actionmenus.placeholder.PlaceholderVolatility;
 import com.britakee.actionmenus.placeholder.ServerAwarePlaceholderProvider;
+import com.britakee.actionmenus.placeholder.ServerMetricsSampler;
 import net.minecraft.server.MinecraftServer;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.neoforge.event.entity.player.PlayerEvent;
+
+import java.util.Set;
 
 /**
  * Provides server-related placeholders.
@@ -11,14 +18,25 @@ import net.minecraft.server.MinecraftServer;
  * - server_online: Number of online players
  * - server_max: Maximum player slots
  * - server_tps: Server TPS (approximated)
+ * - server_mspt, server_mspt_p95, server_mspt_p99: Tick time in milliseconds
  * - server_name: Server name (MOTD)
  * - server_uptime: Server uptime
+ * 
+ * Tick times, memory and player counts are read from the
+ * {@link ServerMetricsSampler} snapshot taken once per tick.
  */
 public class ServerPlaceholderProvider implements ServerAwarePlaceholderProvider {
     
+    // Placeholders invalidated when a player joins or leaves
+    private static final Set<String> ONLINE_PLACEHOLDERS = Set.of(
+            "online", "server_online", "players_online", "online_percent", "server_online_percent");
+    
+    private final ServerMetricsSampler metricsSampler;
     private MinecraftServer server;
-    private long lastTickTime = 0;
-    private double estimatedTps = 20.0;
+    
+    public ServerPlaceholderProvider(ServerMetricsSampler metricsSampler) {
+        this.metricsSampler = metricsSampler;
+    }
     
     @Override
     public String getIdentifier() {
@@ -42,8 +60,10 @@ public class ServerPlaceholderProvider implements ServerAwarePlaceholderProvider
         }
         
         String lowerPlaceholder = placeholder.toLowerCase();
+        ServerMetricsSampler.Snapshot metrics = metricsSampler.getSnapshot();
         
         return switch (lowerPlaceholder) {
+            // Player counts change between samples on login/logout, so read them live
             case "online", "server_online", "players_online" -> 
                     String.valueOf(server.getPlayerCount());
             
@@ -56,11 +76,15 @@ public class ServerPlaceholderProvider implements ServerAwarePlaceholderProvider
                 yield String.format("%.0f", ((double) server.getPlayerCount() / max) * 100);
             }
             
-            case "tps", "server_tps" -> String.format("%.1f", getEstimatedTps());
+            case "tps", "server_tps" -> metrics.getTpsText();
+            
+            case "tps_color", "server_tps_color" -> getTpsColor(metrics.getTps());
+            
+            case "mspt", "server_mspt" -> metrics.getMsptText();
             
-            case "tps_color", "server_tps_color" -> getTpsColor(getEstimatedTps());
+            case "mspt_p95", "server_mspt_p95" -> String.format("%.2f", metrics.getMsptP95());
             
-            case "mspt", "server_mspt" -> String.format("%.2f", getAverageTickTime());
+            case "mspt_p99", "server_mspt_p99" -> String.format("%.2f", metrics.getMsptP99());
             
             case "name", "server_name", "motd" -> server.getMotd();
             
@@ -77,26 +101,21 @@ public class ServerPlaceholderProvider implements ServerAwarePlaceholderProvider
             case "uptime_hours", "server_uptime_hours" -> 
                     String.valueOf(server.getTickCount() / 20 / 60 / 60);
             
-            case "ram_used", "server_ram_used" -> 
-                    formatBytes(Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory());
+            case "ram_used", "server_ram_used" -> formatBytes(metrics.getMemoryUsed());
             
-            case "ram_free", "server_ram_free" -> 
-                    formatBytes(Runtime.getRuntime().freeMemory());
+            case "ram_free", "server_ram_free" -> formatBytes(metrics.getMemoryFree());
             
-            case "ram_total", "server_ram_total" -> 
-                    formatBytes(Runtime.getRuntime().totalMemory());
+            case "ram_total", "server_ram_total" -> formatBytes(metrics.getMemoryTotal());
             
-            case "ram_max", "server_ram_max" -> 
-                    formatBytes(Runtime.getRuntime().maxMemory());
+            case "ram_max", "server_ram_max" -> formatBytes(metrics.getMemoryMax());
             
             case "ram_percent", "server_ram_percent" -> {
-                long used = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
-                long max = Runtime.getRuntime().maxMemory();
-                yield String.format("%.0f", ((double) used / max) * 100);
+                long max = metrics.getMemoryMax();
+                if (max <= 0) yield "0";
+                yield String.format("%.0f", ((double) metrics.getMemoryUsed() / max) * 100);
             }
             
-            case "world_count", "server_world_count" -> 
-                    String.valueOf(server.getAllLevels().spliterator().getExactSizeIfKnown());
+            case "world_count", "server_world_count" -> String.valueOf(metrics.getLevelCount());
             
             case "tick", "server_tick", "current_tick" -> 
                     String.valueOf(server.getTickCount());
@@ -105,32 +124,18 @@ public class ServerPlaceholderProvider implements ServerAwarePlaceholderProvider
         };
     }
     
-    private double getEstimatedTps() {
-        if (server == null) return 20.0;
-        
-        // Get average tick time in nanoseconds
-        double avgTickTime = getAverageTickTime();
-        
-        // Calculate TPS (capped at 20)
-        if (avgTickTime <= 0) return 20.0;
-        double tps = 1000.0 / avgTickTime;
-        return Math.min(20.0, tps);
+    @SubscribeEvent
+    public void onPlayerLogin(PlayerEvent.PlayerLoggedInEvent event) {
+        markOnlineChanged();
     }
     
-    private double getAverageTickTime() {
-        if (server == null) return 0.0;
-        
-        // Get tick times from server
-        long[] tickTimes = server.getTickTimesNanos();
-        if (tickTimes == null || tickTimes.length == 0) return 0.0;
-        
-        long sum = 0;
-        for (long time : tickTimes) {
-            sum += time;
-        }
-        
-        // Convert from nanoseconds to milliseconds
-        return (sum / (double) tickTimes.length) / 1_000_000.0;
+    @SubscribeEvent
+    public void onPlayerLogout(PlayerEvent.PlayerLoggedOutEvent event) {
+        markOnlineChanged();
+    }
+    
+    private void markOnlineChanged() {
+        ActionMenus.getInstance().getPlaceholderManager().markChanged(null, getIdentifier(), ONLINE_PLACEHOLDERS);
     }
     
     private String getTpsColor(double tps) {
@@ -168,13 +173,41 @@ public class ServerPlaceholderProvider implements ServerAwarePlaceholderProvider
         return String.format("%.2f GB", bytes / (1024.0 * 1024.0 * 1024.0));
     }
     
+    @Override
+    public boolean isSnapshotSafe(String placeholder) {
+        // Metrics come from the sampled snapshot, the rest are single field reads
+        return true;
+    }
+    
+    @Override
+    public boolean isViewerIndependent(String placeholder) {
+        return true;
+    }
+    
+    @Override
+    public PlaceholderVolatility getVolatility(String placeholder) {
+        return switch (placeholder.toLowerCase()) {
+            case "name", "server_name", "motd", "version", "server_version",
+                 "max", "server_max", "max_players", "server_max_players" -> PlaceholderVolatility.CONSTANT;
+            case "online", "server_online", "players_online", "online_percent", "server_online_percent" ->
+                    PlaceholderVolatility.EVENT_DRIVEN;
+            case "uptime", "server_uptime", "uptime_seconds", "server_uptime_seconds",
+                 "uptime_minutes", "server_uptime_minutes", "uptime_hours", "server_uptime_hours",
+                 "ram_used", "server_ram_used", "ram_free", "server_ram_free", "ram_total", "server_ram_total",
+                 "ram_max", "server_ram_max", "ram_percent", "server_ram_percent",
+                 "world_count", "server_world_count" -> PlaceholderVolatility.PER_SECOND;
+            default -> PlaceholderVolatility.PER_TICK;
+        };
+    }
+    
     @Override
     public String[] getPlaceholders() {
         return new String[] {
-                "online", "max", "online_percent", "tps", "tps_color", "mspt",
-                "name", "version", "uptime", "uptime_seconds", "uptime_minutes", "uptime_hours",
+                "online", "players_online", "max", "max_players", "online_percent",
+                "tps", "tps_color", "mspt", "mspt_p95", "mspt_p99",
+                "name", "motd", "version", "uptime", "uptime_seconds", "uptime_minutes", "uptime_hours",
                 "ram_used", "ram_free", "ram_total", "ram_max", "ram_percent",
-                "world_count", "tick"
+                "world_count", "tick", "current_tick"
         };
     }
 }
@@ -3,6 +3,7 @@ package com.britakee.actionmenus.placeholder.providers;
 import com.britakee.actionmenus.menu.MenuSession;
 import com.britakee.actionmenus.placeholder.PlaceholderContext;
 import com.britakee.actionmenus.placeholder.PlaceholderProvider;
+import com.britakee.actionmenus.placeholder.PlaceholderVolatility;
 
 /**
  * Provides session and argument related placeholders.
@@ -11,6 +12,8 @@ import com.britakee.actionmenus.placeholder.PlaceholderProvider;
  * - arg_0, arg_1, etc.: Command arguments
  * - args: All arguments joined
  * - session_page: Current page number
+ * - session_pages: Number of pages of the menu's list
+ * - has_next_page, has_previous_page: Whether the list has more pages
  * - session_menu: Current menu ID
  * - session_data_<key>: Custom session data
  */
@@ -68,6 +71,9 @@ public class SessionPlaceholderProvider implements PlaceholderProvider {
         return switch (lowerPlaceholder) {
             case "page", "session_page" -> String.valueOf(session.getCurrentPage());
             case "page_display", "session_page_display" -> String.valueOf(session.getCurrentPage() + 1);
+            case "pages", "session_pages" -> String.valueOf(session.getPageCount());
+            case "has_next_page" -> String.valueOf(session.getCurrentPage() + 1 < session.getPageCount());
+            case "has_previous_page" -> String.valueOf(session.getCurrentPage() > 0);
             case "menu", "session_menu", "menu_id" -> session.getMenuId();
             case "menu_title" -> session.getMenu().getTitle();
             case "open_time", "session_open_time" -> formatDuration(session.getOpenDuration());
@@ -96,13 +102,35 @@ public class SessionPlaceholderProvider implements PlaceholderProvider {
         }
     }
     
+    @Override
+    public PlaceholderVolatility getVolatility(String placeholder) {
+        String lowerPlaceholder = placeholder.toLowerCase();
+        
+        // Arguments and the menu itself are fixed for the session
+        if (lowerPlaceholder.startsWith("arg") || lowerPlaceholder.startsWith("menu")
+                || lowerPlaceholder.equals("session_menu")) {
+            return PlaceholderVolatility.PER_SESSION;
+        }
+        
+        // Page and data only change through actions
+        if (lowerPlaceholder.contains("page") || lowerPlaceholder.contains("data_")) {
+            return PlaceholderVolatility.EVENT_DRIVEN;
+        }
+        
+        return PlaceholderVolatility.PER_SECOND;
+    }
+    
     @Override
     public String[] getPlaceholders() {
         return new String[] {
-                "arg_<n>", "args", "args_count",
-                "page", "page_display", "menu", "menu_title",
+                "arg_<n>", "args_<n>", "args", "arguments", "args_count", "argument_count",
+                "page", "page_display", "pages", "has_next_page", "has_previous_page",
+                "menu", "menu_id", "menu_title",
                 "open_time", "open_time_seconds", "open_time_minutes",
-                "data_<key>"
+                "data_<key>",
+                // Full keys whose parameter alone is not handled, like %session_open_seconds%
+                "session_page", "session_page_display", "session_pages", "session_menu",
+                "session_open_time", "session_open_seconds", "session_open_minutes", "session_data_<key>"
         };
     }
 }
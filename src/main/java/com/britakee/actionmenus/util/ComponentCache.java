@@ -0,0 +1,168 @@
+package com.britakee.actionmenus.util;
+
+import net.minecraft.network.chat.Component;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded cache from colorized text to its Component.
+ * Bounded by both the number of entries and their weight, the total length of the cached text.
+ *
+ * Lookups are lock-free. Eviction uses the second-chance (CLOCK) policy:
+ * an entry that was read since the last sweep is kept once more before it is dropped,
+ * which approximates least-recently-used without reordering on every read.
+ *
+ * Cached Components are shared and must not be modified.
+ */
+public class ComponentCache {
+    
+    public static final int DEFAULT_MAX_SIZE = 5000;
+    public static final long DEFAULT_MAX_WEIGHT = 512 * 1024;
+    
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Entry> clock = new ConcurrentLinkedQueue<>();
+    private final AtomicLong weight = new AtomicLong();
+    
+    private volatile int maxSize = DEFAULT_MAX_SIZE;
+    private volatile long maxWeight = DEFAULT_MAX_WEIGHT;
+    
+    // Statistics
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    
+    /**
+     * Get the Component for a text, creating and caching it on a miss.
+     */
+    public Component get(String text, Function<String, Component> factory) {
+        Entry entry = entries.get(text);
+        if (entry != null) {
+            entry.referenced = true;
+            hits.incrementAndGet();
+            return entry.component;
+        }
+        
+        misses.incrementAndGet();
+        Component component = factory.apply(text);
+        
+        // Text too heavy to ever fit is not cached
+        if (maxSize <= 0 || text.length() > maxWeight) {
+            return component;
+        }
+        
+        Entry created = new Entry(text, component);
+        Entry existing = entries.putIfAbsent(text, created);
+        if (existing != null) {
+            return existing.component;
+        }
+        
+        clock.offer(created);
+        weight.addAndGet(text.length());
+        evictIfNeeded();
+        return component;
+    }
+    
+    /**
+     * Drop all cached Components.
+     */
+    public void clear() {
+        entries.clear();
+        clock.clear();
+        weight.set(0);
+    }
+    
+    /**
+     * Set the limits, 0 entries disables the cache.
+     *
+     * @param maxSize Maximum number of entries
+     * @param maxWeight Maximum total length of the cached text
+     */
+    public void setLimits(int maxSize, long maxWeight) {
+        this.maxSize = Math.max(0, maxSize);
+        this.maxWeight = Math.max(0, maxWeight);
+        evictIfNeeded();
+    }
+    
+    private void evictIfNeeded() {
+        while (entries.size() > maxSize || weight.get() > maxWeight) {
+            Entry entry = clock.poll();
+            if (entry == null) {
+                return;
+            }
+            
+            // Recently read entries get a second chance
+            if (entry.referenced && entries.size() <= maxSize * 2L) {
+                entry.referenced = false;
+                clock.offer(entry);
+                continue;
+            }
+            
+            if (entries.remove(entry.text, entry)) {
+                weight.addAndGet(-entry.text.length());
+                evictions.incrementAndGet();
+            }
+        }
+    }
+    
+    public int getSize() {
+        return entries.size();
+    }
+    
+    public int getMaxSize() {
+        return maxSize;
+    }
+    
+    public long getWeight() {
+        return weight.get();
+    }
+    
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+    
+    public long getHits() {
+        return hits.get();
+    }
+    
+    public long getMisses() {
+        return misses.get();
+    }
+    
+    public long getEvictions() {
+        return evictions.get();
+    }
+    
+    /**
+     * Get the hit rate as a percentage.
+     */
+    public double getHitRate() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        return total == 0 ? 0 : hitCount * 100.0 / total;
+    }
+    
+    public void resetStats() {
+        hits.set(0);
+        misses.set(0);
+        evictions.set(0);
+    }
+    
+    /**
+     * A cached Component with its CLOCK reference bit.
+     */
+    private static class Entry {
+        private final String text;
+        private final Component component;
+        private volatile boolean referenced;
+        
+        Entry(String text, Component component) {
+            this.text = text;
+            this.component = component;
+        }
+    }
+}
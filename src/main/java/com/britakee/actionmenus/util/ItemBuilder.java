@@ -64,7 +64,7 @@ public class ItemBuilder {
     
     public ItemBuilder name(String name) {
         if (name != null && !name.isEmpty()) {
-            this.displayName = TextUtil.colorize(name);
+            this.displayName = TextUtil.colorizeCached(name);
         }
         return this;
     }
@@ -78,7 +78,7 @@ public class ItemBuilder {
         if (lore != null && !lore.isEmpty()) {
             this.lore = new ArrayList<>();
             for (String line : lore) {
-                this.lore.add(TextUtil.colorize(line));
+                this.lore.add(TextUtil.colorizeCached(line));
             }
         }
         return this;
@@ -93,7 +93,7 @@ public class ItemBuilder {
         if (this.lore == null) {
             this.lore = new ArrayList<>();
         }
-        this.lore.add(TextUtil.colorize(line));
+        this.lore.add(TextUtil.colorizeCached(line));
         return this;
     }
     
@@ -6,10 +6,9 @@ import net.minecraft.network.chat.MutableComponent;
 import net.minecraft.network.chat.Style;
 import net.minecraft.network.chat.TextColor;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Utility class for text and color handling.
@@ -19,22 +18,57 @@ import java.util.regex.Pattern;
  * - Spigot hex: &x&R&R&G&G&B&B
  * - MiniMessage tags: <red>, <bold>, <gradient:color1:color2>
  * - Gradients: <gradient:#RRGGBB:#RRGGBB>text</gradient>
+ * 
+ * All formats are read in a single pass that builds the Component directly.
  */
 public class TextUtil {
     
-    // Hex patterns - various formats
-    private static final Pattern HEX_PATTERN = Pattern.compile("&#([A-Fa-f0-9]{6})");
-    private static final Pattern HEX_BRACKET_PATTERN = Pattern.compile("\\{#([A-Fa-f0-9]{6})}");
-    private static final Pattern HEX_ANGLE_PATTERN = Pattern.compile("<#([A-Fa-f0-9]{6})>");
-    private static final Pattern HEX_PLAIN_PATTERN = Pattern.compile("(?<![&{<])#([A-Fa-f0-9]{6})(?![}>])");
-    private static final Pattern SPIGOT_HEX_PATTERN = Pattern.compile("&x(&[A-Fa-f0-9]){6}");
+    // MiniMessage-style tags and their legacy formatting
+    private static final Map<String, ChatFormatting> TAGS = new HashMap<>();
     
-    // MiniMessage-style patterns
-    private static final Pattern MINIMESSAGE_COLOR_PATTERN = Pattern.compile("<(black|dark_blue|dark_green|dark_aqua|dark_red|dark_purple|gold|gray|dark_gray|blue|green|aqua|red|light_purple|yellow|white)>");
-    private static final Pattern MINIMESSAGE_FORMAT_PATTERN = Pattern.compile("<(bold|italic|underlined|strikethrough|obfuscated|reset)>");
-    private static final Pattern MINIMESSAGE_CLOSE_PATTERN = Pattern.compile("</(bold|italic|underlined|strikethrough|obfuscated|[a-z_]+)>");
-    private static final Pattern GRADIENT_PATTERN = Pattern.compile("<gradient:?(#[A-Fa-f0-9]{6}):(#[A-Fa-f0-9]{6})>(.*?)</gradient>", Pattern.DOTALL);
-    private static final Pattern RAINBOW_PATTERN = Pattern.compile("<rainbow>(.*?)</rainbow>", Pattern.DOTALL);
+    // Gradient colors by (from, to, length) and rainbow colors by length
+    private static final Map<Long, int[]> GRADIENT_RAMPS = new ConcurrentHashMap<>();
+    private static final Map<Integer, int[]> RAINBOW_RAMPS = new ConcurrentHashMap<>();
+    private static final int MAX_RAMPS = 1000;
+    
+    // Colorized item text shared across players and builds
+    private static final ComponentCache CACHE = new ComponentCache();
+    
+    static {
+        TAGS.put("black", ChatFormatting.BLACK);
+        TAGS.put("dark_blue", ChatFormatting.DARK_BLUE);
+        TAGS.put("dark_green", ChatFormatting.DARK_GREEN);
+        TAGS.put("dark_aqua", ChatFormatting.DARK_AQUA);
+        TAGS.put("dark_red", ChatFormatting.DARK_RED);
+        TAGS.put("dark_purple", ChatFormatting.DARK_PURPLE);
+        TAGS.put("gold", ChatFormatting.GOLD);
+        TAGS.put("gray", ChatFormatting.GRAY);
+        TAGS.put("grey", ChatFormatting.GRAY);
+        TAGS.put("dark_gray", ChatFormatting.DARK_GRAY);
+        TAGS.put("dark_grey", ChatFormatting.DARK_GRAY);
+        TAGS.put("blue", ChatFormatting.BLUE);
+        TAGS.put("green", ChatFormatting.GREEN);
+        TAGS.put("aqua", ChatFormatting.AQUA);
+        TAGS.put("red", ChatFormatting.RED);
+        TAGS.put("light_purple", ChatFormatting.LIGHT_PURPLE);
+        TAGS.put("pink", ChatFormatting.LIGHT_PURPLE);
+        TAGS.put("yellow", ChatFormatting.YELLOW);
+        TAGS.put("white", ChatFormatting.WHITE);
+        
+        TAGS.put("bold", ChatFormatting.BOLD);
+        TAGS.put("b", ChatFormatting.BOLD);
+        TAGS.put("italic", ChatFormatting.ITALIC);
+        TAGS.put("i", ChatFormatting.ITALIC);
+        TAGS.put("em", ChatFormatting.ITALIC);
+        TAGS.put("underlined", ChatFormatting.UNDERLINE);
+        TAGS.put("u", ChatFormatting.UNDERLINE);
+        TAGS.put("strikethrough", ChatFormatting.STRIKETHROUGH);
+        TAGS.put("st", ChatFormatting.STRIKETHROUGH);
+        TAGS.put("obfuscated", ChatFormatting.OBFUSCATED);
+        TAGS.put("obf", ChatFormatting.OBFUSCATED);
+        TAGS.put("reset", ChatFormatting.RESET);
+        TAGS.put("r", ChatFormatting.RESET);
+    }
     
     /**
      * Convert a string with color codes to a Component.
@@ -44,340 +78,332 @@ public class TextUtil {
             return Component.empty();
         }
         
-        // Handle gradients first (they contain text that needs special processing)
-        text = processGradients(text);
-        text = processRainbow(text);
-        
-        // Handle all hex color formats
-        text = translateHexColors(text);
-        text = translateBracketHex(text);
-        text = translateAngleHex(text);
-        text = translatePlainHex(text);
-        text = translateSpigotHex(text);
-        
-        // Handle MiniMessage-style tags
-        text = translateMiniMessageColors(text);
-        text = translateMiniMessageFormats(text);
-        
-        // Handle legacy color codes
-        return translateLegacyColors(text);
+        return new Lexer(text).lex();
     }
     
     /**
-     * Process gradient tags and convert to individual hex colors per character.
+     * Convert a string with color codes to a Component, reusing the result for identical text.
+     * Meant for item names and lore, which mostly repeat. The returned Component is shared
+     * and must not be modified.
      */
-    private static String processGradients(String text) {
-        Matcher matcher = GRADIENT_PATTERN.matcher(text);
-        StringBuilder result = new StringBuilder();
-        
-        while (matcher.find()) {
-            String startHex = matcher.group(1).substring(1); // Remove #
-            String endHex = matcher.group(2).substring(1);
-            String content = matcher.group(3);
-            
-            String gradientText = applyGradient(content, startHex, endHex);
-            matcher.appendReplacement(result, Matcher.quoteReplacement(gradientText));
+    public static Component colorizeCached(String text) {
+        if (text == null || text.isEmpty()) {
+            return Component.empty();
         }
-        matcher.appendTail(result);
         
-        return result.toString();
+        return CACHE.get(text, TextUtil::colorize);
     }
     
     /**
-     * Apply gradient colors to text.
+     * Get the cache used by {@link #colorizeCached(String)}.
      */
-    private static String applyGradient(String text, String startHex, String endHex) {
-        if (text.isEmpty()) return text;
-        
-        // Strip existing color codes from content for clean gradient
-        String cleanText = stripColors(text);
-        if (cleanText.isEmpty()) return text;
-        
-        int[] startRGB = hexToRGB(startHex);
-        int[] endRGB = hexToRGB(endHex);
-        
-        StringBuilder result = new StringBuilder();
-        int length = cleanText.length();
-        
-        for (int i = 0; i < length; i++) {
-            float ratio = length == 1 ? 0 : (float) i / (length - 1);
-            int r = (int) (startRGB[0] + ratio * (endRGB[0] - startRGB[0]));
-            int g = (int) (startRGB[1] + ratio * (endRGB[1] - startRGB[1]));
-            int b = (int) (startRGB[2] + ratio * (endRGB[2] - startRGB[2]));
-            
-            result.append(String.format("&#%02X%02X%02X%c", r, g, b, cleanText.charAt(i)));
-        }
-        
-        return result.toString();
+    public static ComponentCache getComponentCache() {
+        return CACHE;
     }
     
     /**
-     * Process rainbow tags.
+     * Single-pass reader for all supported color formats.
+     * Text is collected into runs that share a style, and each run
+     * becomes one literal sibling of the result.
      */
-    private static String processRainbow(String text) {
-        Matcher matcher = RAINBOW_PATTERN.matcher(text);
-        StringBuilder result = new StringBuilder();
-        
-        while (matcher.find()) {
-            String content = matcher.group(1);
-            String rainbowText = applyRainbow(content);
-            matcher.appendReplacement(result, Matcher.quoteReplacement(rainbowText));
+    private static final class Lexer {
+        private final String text;
+        private final int length;
+        private final MutableComponent result = Component.empty();
+        private final StringBuilder run = new StringBuilder();
+        // Content of a gradient or rainbow without its color codes
+        private final StringBuilder plain = new StringBuilder();
+        private Style runStyle = Style.EMPTY;
+        private Style style = Style.EMPTY;
+        private int pos;
+        
+        Lexer(String text) {
+            this.text = text;
+            this.length = text.length();
         }
-        matcher.appendTail(result);
-        
-        return result.toString();
-    }
-    
-    /**
-     * Apply rainbow colors to text.
-     */
-    private static String applyRainbow(String text) {
-        String cleanText = stripColors(text);
-        if (cleanText.isEmpty()) return text;
-        
-        StringBuilder result = new StringBuilder();
-        int length = cleanText.length();
         
-        for (int i = 0; i < length; i++) {
-            float hue = (float) i / length;
-            int rgb = java.awt.Color.HSBtoRGB(hue, 1.0f, 1.0f);
-            int r = (rgb >> 16) & 0xFF;
-            int g = (rgb >> 8) & 0xFF;
-            int b = rgb & 0xFF;
+        Component lex() {
+            while (pos < length) {
+                char c = text.charAt(pos);
+                boolean consumed = switch (c) {
+                    case '&', '§' -> lexCode();
+                    case '{' -> lexBracketHex();
+                    case '<' -> lexTag();
+                    case '#' -> lexPlainHex();
+                    default -> false;
+                };
+                
+                if (!consumed) {
+                    append(c);
+                    pos++;
+                }
+            }
             
-            result.append(String.format("&#%02X%02X%02X%c", r, g, b, cleanText.charAt(i)));
+            flush();
+            return result;
         }
         
-        return result.toString();
-    }
-    
-    /**
-     * Convert hex string to RGB array.
-     */
-    private static int[] hexToRGB(String hex) {
-        return new int[] {
-            Integer.parseInt(hex.substring(0, 2), 16),
-            Integer.parseInt(hex.substring(2, 4), 16),
-            Integer.parseInt(hex.substring(4, 6), 16)
-        };
-    }
-    
-    /**
-     * Translate hex color codes (&#RRGGBB) to internal format.
-     */
-    private static String translateHexColors(String text) {
-        Matcher matcher = HEX_PATTERN.matcher(text);
-        StringBuilder result = new StringBuilder();
-        
-        while (matcher.find()) {
-            String hex = matcher.group(1);
-            matcher.appendReplacement(result, "§x" + 
-                    "§" + hex.charAt(0) + "§" + hex.charAt(1) +
-                    "§" + hex.charAt(2) + "§" + hex.charAt(3) +
-                    "§" + hex.charAt(4) + "§" + hex.charAt(5));
+        /**
+         * Legacy codes (&a), hex (&#RRGGBB) and Spigot hex (&x&R&R&G&G&B&B).
+         */
+        private boolean lexCode() {
+            if (pos + 1 >= length) {
+                return false;
+            }
+            
+            char next = text.charAt(pos + 1);
+            
+            if (next == '#' && isHex(pos + 2, 6)) {
+                setHexColor(parseHex(pos + 2));
+                pos += 8;
+                return true;
+            }
+            
+            if ((next == 'x' || next == 'X') && isSpigotHex(pos + 2)) {
+                int rgb = 0;
+                for (int i = 0; i < 6; i++) {
+                    rgb = (rgb << 4) | Character.digit(text.charAt(pos + 3 + i * 2), 16);
+                }
+                setHexColor(rgb);
+                pos += 14;
+                return true;
+            }
+            
+            ChatFormatting formatting = getFormatting(Character.toLowerCase(next));
+            if (formatting != null) {
+                applyFormatting(formatting);
+                pos += 2;
+                return true;
+            }
+            
+            return false;
         }
-        matcher.appendTail(result);
-        
-        return result.toString();
-    }
-    
-    /**
-     * Translate bracket hex ({#RRGGBB}) to internal format.
-     */
-    private static String translateBracketHex(String text) {
-        Matcher matcher = HEX_BRACKET_PATTERN.matcher(text);
-        StringBuilder result = new StringBuilder();
         
-        while (matcher.find()) {
-            String hex = matcher.group(1);
-            matcher.appendReplacement(result, "§x" + 
-                    "§" + hex.charAt(0) + "§" + hex.charAt(1) +
-                    "§" + hex.charAt(2) + "§" + hex.charAt(3) +
-                    "§" + hex.charAt(4) + "§" + hex.charAt(5));
+        /**
+         * Bracket hex ({#RRGGBB}).
+         */
+        private boolean lexBracketHex() {
+            if (pos + 8 < length && text.charAt(pos + 1) == '#' && isHex(pos + 2, 6) && text.charAt(pos + 8) == '}') {
+                setHexColor(parseHex(pos + 2));
+                pos += 9;
+                return true;
+            }
+            return false;
         }
-        matcher.appendTail(result);
         
-        return result.toString();
-    }
-    
-    /**
-     * Translate angle bracket hex (<#RRGGBB>) to internal format.
-     */
-    private static String translateAngleHex(String text) {
-        Matcher matcher = HEX_ANGLE_PATTERN.matcher(text);
-        StringBuilder result = new StringBuilder();
-        
-        while (matcher.find()) {
-            String hex = matcher.group(1);
-            matcher.appendReplacement(result, "§x" + 
-                    "§" + hex.charAt(0) + "§" + hex.charAt(1) +
-                    "§" + hex.charAt(2) + "§" + hex.charAt(3) +
-                    "§" + hex.charAt(4) + "§" + hex.charAt(5));
+        /**
+         * Plain hex (#RRGGBB), unless it is part of another hex format.
+         */
+        private boolean lexPlainHex() {
+            if (!isHex(pos + 1, 6)) {
+                return false;
+            }
+            
+            if (pos > 0) {
+                char previous = text.charAt(pos - 1);
+                if (previous == '&' || previous == '{' || previous == '<') {
+                    return false;
+                }
+            }
+            if (pos + 7 < length) {
+                char following = text.charAt(pos + 7);
+                if (following == '}' || following == '>') {
+                    return false;
+                }
+            }
+            
+            setHexColor(parseHex(pos + 1));
+            pos += 7;
+            return true;
         }
-        matcher.appendTail(result);
         
-        return result.toString();
-    }
-    
-    /**
-     * Translate plain hex (#RRGGBB) to internal format.
-     */
-    private static String translatePlainHex(String text) {
-        Matcher matcher = HEX_PLAIN_PATTERN.matcher(text);
-        StringBuilder result = new StringBuilder();
+        /**
+         * Angle hex (<#RRGGBB>), gradients, rainbows and MiniMessage tags.
+         */
+        private boolean lexTag() {
+            int close = text.indexOf('>', pos + 1);
+            if (close < 0) {
+                return false;
+            }
+            
+            if (close == pos + 8 && text.charAt(pos + 1) == '#' && isHex(pos + 2, 6)) {
+                setHexColor(parseHex(pos + 2));
+                pos = close + 1;
+                return true;
+            }
+            
+            if (text.startsWith("gradient", pos + 1)) {
+                return lexGradient(close);
+            }
+            
+            if (close == pos + 8 && text.startsWith("rainbow", pos + 1)) {
+                return lexRainbow(close);
+            }
+            
+            // Closing tags don't map to legacy codes, drop them
+            if (text.charAt(pos + 1) == '/') {
+                if (close > pos + 2 && isTagName(pos + 2, close)) {
+                    pos = close + 1;
+                    return true;
+                }
+                return false;
+            }
+            
+            ChatFormatting formatting = TAGS.get(text.substring(pos + 1, close));
+            if (formatting != null) {
+                applyFormatting(formatting);
+                pos = close + 1;
+                return true;
+            }
+            
+            return false;
+        }
         
-        while (matcher.find()) {
-            String hex = matcher.group(1);
-            matcher.appendReplacement(result, "§x" + 
-                    "§" + hex.charAt(0) + "§" + hex.charAt(1) +
-                    "§" + hex.charAt(2) + "§" + hex.charAt(3) +
-                    "§" + hex.charAt(4) + "§" + hex.charAt(5));
+        /**
+         * Gradient (<gradient:#RRGGBB:#RRGGBB>text</gradient>).
+         */
+        private boolean lexGradient(int close) {
+            // Colon after "gradient" is optional
+            int start = pos + 9;
+            if (start < length && text.charAt(start) == ':') {
+                start++;
+            }
+            if (close != start + 15
+                    || text.charAt(start) != '#' || !isHex(start + 1, 6)
+                    || text.charAt(start + 7) != ':'
+                    || text.charAt(start + 8) != '#' || !isHex(start + 9, 6)) {
+                return false;
+            }
+            
+            int end = text.indexOf("</gradient>", close + 1);
+            if (end < 0) {
+                return false;
+            }
+            
+            plain.setLength(0);
+            stripColors(text, close + 1, end, plain);
+            if (plain.length() == 0) {
+                // Nothing to color, keep reading the content as-is
+                pos = close + 1;
+                return true;
+            }
+            
+            appendRamp(gradientRamp(parseHex(start + 1), parseHex(start + 9), plain.length()));
+            pos = end + "</gradient>".length();
+            return true;
         }
-        matcher.appendTail(result);
         
-        return result.toString();
-    }
-    
-    /**
-     * Translate Spigot-style hex (&x&R&R&G&G&B&B) to internal format.
-     */
-    private static String translateSpigotHex(String text) {
-        Matcher matcher = SPIGOT_HEX_PATTERN.matcher(text);
-        StringBuilder result = new StringBuilder();
+        /**
+         * Rainbow (<rainbow>text</rainbow>).
+         */
+        private boolean lexRainbow(int close) {
+            int end = text.indexOf("</rainbow>", close + 1);
+            if (end < 0) {
+                return false;
+            }
+            
+            plain.setLength(0);
+            stripColors(text, close + 1, end, plain);
+            if (plain.length() == 0) {
+                pos = close + 1;
+                return true;
+            }
+            
+            appendRamp(rainbowRamp(plain.length()));
+            pos = end + "</rainbow>".length();
+            return true;
+        }
         
-        while (matcher.find()) {
-            String match = matcher.group();
-            // Convert &x&R&R&G&G&B&B to §x§R§R§G§G§B§B
-            String converted = match.replace('&', '§');
-            matcher.appendReplacement(result, Matcher.quoteReplacement(converted));
+        /**
+         * Append the stripped content with one color per character.
+         * Neighbours of the same color share a style and end up in one run.
+         */
+        private void appendRamp(int[] ramp) {
+            int color = -1;
+            for (int i = 0; i < ramp.length; i++) {
+                if (ramp[i] != color) {
+                    color = ramp[i];
+                    setHexColor(color);
+                }
+                append(plain.charAt(i));
+            }
         }
-        matcher.appendTail(result);
         
-        return result.toString();
-    }
-    
-    /**
-     * Translate MiniMessage color tags to legacy codes.
-     */
-    private static String translateMiniMessageColors(String text) {
-        text = text.replace("<black>", "&0");
-        text = text.replace("<dark_blue>", "&1");
-        text = text.replace("<dark_green>", "&2");
-        text = text.replace("<dark_aqua>", "&3");
-        text = text.replace("<dark_red>", "&4");
-        text = text.replace("<dark_purple>", "&5");
-        text = text.replace("<gold>", "&6");
-        text = text.replace("<gray>", "&7");
-        text = text.replace("<grey>", "&7");
-        text = text.replace("<dark_gray>", "&8");
-        text = text.replace("<dark_grey>", "&8");
-        text = text.replace("<blue>", "&9");
-        text = text.replace("<green>", "&a");
-        text = text.replace("<aqua>", "&b");
-        text = text.replace("<red>", "&c");
-        text = text.replace("<light_purple>", "&d");
-        text = text.replace("<pink>", "&d");
-        text = text.replace("<yellow>", "&e");
-        text = text.replace("<white>", "&f");
-        return text;
-    }
-    
-    /**
-     * Translate MiniMessage format tags to legacy codes.
-     */
-    private static String translateMiniMessageFormats(String text) {
-        text = text.replace("<bold>", "&l");
-        text = text.replace("<b>", "&l");
-        text = text.replace("<italic>", "&o");
-        text = text.replace("<i>", "&o");
-        text = text.replace("<em>", "&o");
-        text = text.replace("<underlined>", "&n");
-        text = text.replace("<u>", "&n");
-        text = text.replace("<strikethrough>", "&m");
-        text = text.replace("<st>", "&m");
-        text = text.replace("<obfuscated>", "&k");
-        text = text.replace("<obf>", "&k");
-        text = text.replace("<reset>", "&r");
-        text = text.replace("<r>", "&r");
+        private void applyFormatting(ChatFormatting formatting) {
+            if (formatting == ChatFormatting.RESET) {
+                style = Style.EMPTY;
+            } else if (formatting.isColor()) {
+                // Legacy colors reset formatting
+                style = Style.EMPTY.withColor(formatting);
+            } else {
+                style = applyFormat(style, formatting);
+            }
+        }
         
-        // Remove closing tags (they don't map to legacy codes directly)
-        text = MINIMESSAGE_CLOSE_PATTERN.matcher(text).replaceAll("");
+        private void setHexColor(int rgb) {
+            // Hex colors keep the current formatting
+            style = style.withColor(TextColor.fromRgb(rgb));
+        }
         
-        return text;
-    }
-    
-    /**
-     * Translate legacy color codes to Component.
-     */
-    private static Component translateLegacyColors(String text) {
-        // Replace & with § for standard processing
-        text = text.replace('&', '§');
+        private void append(char c) {
+            if (run.length() > 0 && !style.equals(runStyle)) {
+                flush();
+            }
+            if (run.length() == 0) {
+                runStyle = style;
+            }
+            run.append(c);
+        }
         
-        MutableComponent result = Component.empty();
-        Style currentStyle = Style.EMPTY;
-        StringBuilder currentText = new StringBuilder();
+        private void flush() {
+            if (run.length() > 0) {
+                result.append(Component.literal(run.toString()).withStyle(runStyle));
+                run.setLength(0);
+            }
+        }
         
-        int i = 0;
-        while (i < text.length()) {
-            char c = text.charAt(i);
-            
-            if (c == '§' && i + 1 < text.length()) {
-                char code = Character.toLowerCase(text.charAt(i + 1));
-                
-                // Flush current text
-                if (currentText.length() > 0) {
-                    result = result.append(Component.literal(currentText.toString()).withStyle(currentStyle));
-                    currentText = new StringBuilder();
-                }
-                
-                // Handle hex colors (§x§R§R§G§G§B§B format)
-                if (code == 'x' && i + 13 < text.length()) {
-                    StringBuilder hexBuilder = new StringBuilder();
-                    boolean valid = true;
-                    for (int j = 0; j < 6 && valid; j++) {
-                        int hexIndex = i + 3 + (j * 2);
-                        if (hexIndex < text.length() && text.charAt(hexIndex - 1) == '§') {
-                            hexBuilder.append(text.charAt(hexIndex));
-                        } else {
-                            valid = false;
-                        }
-                    }
-                    
-                    if (valid && hexBuilder.length() == 6) {
-                        try {
-                            int rgb = Integer.parseInt(hexBuilder.toString(), 16);
-                            currentStyle = currentStyle.withColor(TextColor.fromRgb(rgb));
-                            i += 14;
-                            continue;
-                        } catch (NumberFormatException ignored) {}
-                    }
+        private boolean isHex(int start, int count) {
+            if (start + count > length) {
+                return false;
+            }
+            for (int i = start; i < start + count; i++) {
+                if (Character.digit(text.charAt(i), 16) < 0) {
+                    return false;
                 }
-                
-                // Handle standard color codes
-                ChatFormatting formatting = getFormatting(code);
-                if (formatting != null) {
-                    if (formatting == ChatFormatting.RESET) {
-                        currentStyle = Style.EMPTY;
-                    } else if (formatting.isColor()) {
-                        currentStyle = Style.EMPTY.withColor(formatting);
-                    } else {
-                        currentStyle = applyFormat(currentStyle, formatting);
-                    }
-                    i += 2;
-                    continue;
+            }
+            return true;
+        }
+        
+        private boolean isSpigotHex(int start) {
+            if (start + 12 > length) {
+                return false;
+            }
+            for (int i = 0; i < 6; i++) {
+                char marker = text.charAt(start + i * 2);
+                if ((marker != '&' && marker != '§') || Character.digit(text.charAt(start + i * 2 + 1), 16) < 0) {
+                    return false;
                 }
             }
-            
-            currentText.append(c);
-            i++;
+            return true;
         }
         
-        // Flush remaining text
-        if (currentText.length() > 0) {
-            result = result.append(Component.literal(currentText.toString()).withStyle(currentStyle));
+        private boolean isTagName(int start, int end) {
+            for (int i = start; i < end; i++) {
+                char c = text.charAt(i);
+                if ((c < 'a' || c > 'z') && c != '_') {
+                    return false;
+                }
+            }
+            return true;
         }
         
-        return result;
+        private int parseHex(int start) {
+            int rgb = 0;
+            for (int i = start; i < start + 6; i++) {
+                rgb = (rgb << 4) | Character.digit(text.charAt(i), 16);
+            }
+            return rgb;
+        }
     }
     
     /**
@@ -425,24 +451,169 @@ public class TextUtil {
         };
     }
     
+    /**
+     * Get the colors of a gradient over count characters, by linear interpolation per channel.
+     */
+    private static int[] gradientRamp(int from, int to, int count) {
+        long key = ((long) from << 40) | ((long) to << 16) | count;
+        if (count > 0xFFFF) {
+            return createGradientRamp(from, to, count);
+        }
+        
+        int[] ramp = GRADIENT_RAMPS.get(key);
+        if (ramp == null) {
+            ramp = createGradientRamp(from, to, count);
+            if (GRADIENT_RAMPS.size() >= MAX_RAMPS) {
+                GRADIENT_RAMPS.clear();
+            }
+            GRADIENT_RAMPS.put(key, ramp);
+        }
+        return ramp;
+    }
+    
+    private static int[] createGradientRamp(int from, int to, int count) {
+        int[] ramp = new int[count];
+        int steps = Math.max(1, count - 1);
+        for (int i = 0; i < count; i++) {
+            ramp[i] = (interpolate(from >> 16, to >> 16, i, steps) << 16)
+                    | (interpolate(from >> 8, to >> 8, i, steps) << 8)
+                    | interpolate(from, to, i, steps);
+        }
+        return ramp;
+    }
+    
+    /**
+     * Interpolate one 8-bit channel, rounding down.
+     */
+    private static int interpolate(int from, int to, int step, int steps) {
+        from &= 0xFF;
+        to &= 0xFF;
+        return (from * steps + (to - from) * step) / steps;
+    }
+    
+    /**
+     * Get the colors of a rainbow over count characters: one full turn of the hue
+     * at full saturation and brightness, starting at red.
+     */
+    private static int[] rainbowRamp(int count) {
+        int[] ramp = RAINBOW_RAMPS.get(count);
+        if (ramp == null) {
+            ramp = new int[count];
+            for (int i = 0; i < count; i++) {
+                // Sixth of the color wheel, and the rounded position inside it
+                int sector = i * 6 / count;
+                int offset = i * 6 % count;
+                int rising = roundedChannel(offset, count);
+                int falling = roundedChannel(count - offset, count);
+                ramp[i] = switch (sector) {
+                    case 0 -> 0xFF0000 | (rising << 8);
+                    case 1 -> (falling << 16) | 0x00FF00;
+                    case 2 -> 0x00FF00 | rising;
+                    case 3 -> (falling << 8) | 0x0000FF;
+                    case 4 -> (rising << 16) | 0x0000FF;
+                    default -> 0xFF0000 | falling;
+                };
+            }
+            if (RAINBOW_RAMPS.size() >= MAX_RAMPS) {
+                RAINBOW_RAMPS.clear();
+            }
+            RAINBOW_RAMPS.put(count, ramp);
+        }
+        return ramp;
+    }
+    
+    /**
+     * Scale a fraction to a channel value, rounding half up.
+     */
+    private static int roundedChannel(int numerator, int denominator) {
+        return (int) (((long) numerator * 510 + denominator) / (2L * denominator));
+    }
+    
     /**
      * Strip color codes from text.
      */
     public static String stripColors(String text) {
         if (text == null) return null;
-        return text
-                .replaceAll("&[0-9a-fk-or]", "")
-                .replaceAll("&#[A-Fa-f0-9]{6}", "")
-                .replaceAll("\\{#[A-Fa-f0-9]{6}}", "")
-                .replaceAll("<#[A-Fa-f0-9]{6}>", "")
-                .replaceAll("#[A-Fa-f0-9]{6}", "")
-                .replaceAll("§[0-9a-fk-orx]", "")
-                .replaceAll("<[a-z_]+>", "")
-                .replaceAll("</[a-z_]+>", "")
-                .replaceAll("<gradient:[^>]+>", "")
-                .replaceAll("</gradient>", "")
-                .replaceAll("<rainbow>", "")
-                .replaceAll("</rainbow>", "");
+        StringBuilder result = new StringBuilder(text.length());
+        stripColors(text, 0, text.length(), result);
+        return result.toString();
+    }
+    
+    /**
+     * Append the text between start and end without color codes, in a single pass.
+     */
+    private static void stripColors(String text, int start, int end, StringBuilder out) {
+        int pos = start;
+        while (pos < end) {
+            int skip = colorCodeLength(text, pos, end);
+            if (skip > 0) {
+                pos += skip;
+            } else {
+                out.append(text.charAt(pos++));
+            }
+        }
+    }
+    
+    /**
+     * Get the length of the color code at pos, or 0 if there is none.
+     */
+    private static int colorCodeLength(String text, int pos, int end) {
+        char c = text.charAt(pos);
+        char next = pos + 1 < end ? text.charAt(pos + 1) : 0;
+        
+        switch (c) {
+            case '&':
+                if (next == '#' && isHex(text, pos + 2, 6, end)) {
+                    return 8;
+                }
+                return isCodeChar(next) ? 2 : 0;
+            case '§':
+                return isCodeChar(next) || next == 'x' ? 2 : 0;
+            case '#':
+                return isHex(text, pos + 1, 6, end) ? 7 : 0;
+            case '{':
+                return next == '#' && pos + 8 < end && isHex(text, pos + 2, 6, end) && text.charAt(pos + 8) == '}' ? 9 : 0;
+            case '<':
+                int close = text.indexOf('>', pos + 1);
+                if (close < 0 || close >= end) {
+                    return 0;
+                }
+                if (next == '#') {
+                    return close == pos + 8 && isHex(text, pos + 2, 6, end) ? 9 : 0;
+                }
+                if (text.startsWith("gradient:", pos + 1)) {
+                    return close - pos + 1;
+                }
+                int nameStart = next == '/' ? pos + 2 : pos + 1;
+                if (close == nameStart) {
+                    return 0;
+                }
+                for (int i = nameStart; i < close; i++) {
+                    char ch = text.charAt(i);
+                    if ((ch < 'a' || ch > 'z') && ch != '_') {
+                        return 0;
+                    }
+                }
+                return close - pos + 1;
+            default:
+                return 0;
+        }
+    }
+    
+    private static boolean isCodeChar(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'k' && c <= 'o') || c == 'r';
+    }
+    
+    private static boolean isHex(String text, int start, int count, int end) {
+        if (start + count > end) {
+            return false;
+        }
+        for (int i = start; i < start + count; i++) {
+            if (Character.digit(text.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
     }
     
     /**
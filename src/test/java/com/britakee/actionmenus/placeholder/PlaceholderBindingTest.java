@@ -0,0 +1,168 @@
+package com.britakee.actionmenus.placeholder;
+
+import com.britakee.actionmenus.placeholder.providers.*;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that every placeholder the built-in providers handle in their
+ * resolve switches binds to a provider, written both with and without
+ * the provider's category.
+ */
+class PlaceholderBindingTest {
+    
+    // The case labels of each provider's resolve method
+    private static final String[] PLAYER_KEYS = {
+            "name", "player_name", "displayname", "uuid", "player_uuid",
+            "main_hand", "player_main_hand", "off_hand", "player_off_hand",
+            "health", "player_health", "max_health", "player_max_health", "maxhealth",
+            "health_percent", "player_health_percent",
+            "food", "player_food", "hunger", "saturation", "player_saturation",
+            "level", "player_level", "exp_level", "exp", "player_exp", "experience",
+            "exp_to_level", "player_exp_to_level", "exp_percent", "player_exp_percent",
+            "x", "player_x", "y", "player_y", "z", "player_z",
+            "x_precise", "player_x_precise", "y_precise", "player_y_precise", "z_precise", "player_z_precise",
+            "yaw", "player_yaw", "pitch", "player_pitch", "location", "player_location",
+            "world", "player_world", "dimension", "world_name", "player_world_name",
+            "gamemode", "player_gamemode", "is_creative", "is_spectator", "is_survival",
+            "ping", "player_ping", "playtime", "player_playtime", "playtime_formatted", "player_playtime_formatted",
+            "playtime_seconds", "playtime_minutes", "playtime_hours",
+            "is_sneaking", "is_sprinting", "is_flying", "is_swimming", "is_sleeping",
+            "armor", "player_armor", "air", "player_air", "max_air", "player_max_air"
+    };
+    
+    private static final String[] SERVER_KEYS = {
+            "online", "server_online", "players_online", "max", "server_max", "max_players", "server_max_players",
+            "online_percent", "server_online_percent", "tps", "server_tps", "tps_color", "server_tps_color",
+            "mspt", "server_mspt", "mspt_p95", "server_mspt_p95", "mspt_p99", "server_mspt_p99",
+            "name", "server_name", "motd", "version", "server_version",
+            "uptime", "server_uptime", "uptime_seconds", "server_uptime_seconds",
+            "uptime_minutes", "server_uptime_minutes", "uptime_hours", "server_uptime_hours",
+            "ram_used", "server_ram_used", "ram_free", "server_ram_free", "ram_total", "server_ram_total",
+            "ram_max", "server_ram_max", "ram_percent", "server_ram_percent",
+            "world_count", "server_world_count", "tick", "server_tick", "current_tick"
+    };
+    
+    private static final String[] TIME_KEYS = {
+            "hour", "hours", "h", "hour12", "hours12", "h12", "minute", "minutes", "m",
+            "second", "seconds", "s", "ampm", "am_pm", "millisecond", "ms",
+            "day", "d", "day_of_month", "month", "month_number", "month_name", "month_short",
+            "year", "y", "year_short", "day_of_week", "day_of_week_short", "day_of_year", "week_of_year",
+            "formatted", "time_formatted", "date_formatted", "datetime", "datetime_formatted",
+            "iso", "us_date", "eu_date", "12hour", "24hour",
+            "timestamp", "unix", "timestamp_ms", "unix_ms",
+            "minecraft_time", "mc_time", "minecraft_day", "mc_day", "is_day", "is_night",
+            "timezone", "tz", "timezone_offset"
+    };
+    
+    private static final String[] SESSION_KEYS = {
+            "arg_0", "args_1", "args", "arguments", "args_count", "argument_count",
+            "page", "session_page", "page_display", "session_page_display", "pages", "session_pages",
+            "has_next_page", "has_previous_page", "menu", "session_menu", "menu_id", "menu_title",
+            "open_time", "session_open_time", "open_time_seconds", "session_open_seconds",
+            "open_time_minutes", "session_open_minutes", "data_kills", "session_data_kills"
+    };
+    
+    private static final String[] MATH_KEYS = {
+            "math_5+3", "math_round(3.7)", "math_random"
+    };
+    
+    // References are interned and keep their binding, so all tests share one manager
+    private static PlaceholderManager manager;
+    
+    @BeforeAll
+    static void setUp() {
+        manager = new PlaceholderManager();
+        manager.register(new PlayerPlaceholderProvider(manager));
+        manager.register(new ServerPlaceholderProvider(manager.getMetricsSampler()));
+        manager.register(new MathPlaceholderProvider(manager));
+        manager.register(new DateTimePlaceholderProvider());
+        manager.register(new SessionPlaceholderProvider());
+        manager.register(new EntryPlaceholderProvider());
+    }
+    
+    @Test
+    void playerKeysBind() {
+        assertBound("player", PLAYER_KEYS);
+    }
+    
+    @Test
+    void serverKeysBind() {
+        assertBound("server", SERVER_KEYS);
+    }
+    
+    @Test
+    void timeKeysBind() {
+        assertBound("time", TIME_KEYS);
+    }
+    
+    @Test
+    void sessionKeysBind() {
+        assertBound("session", SESSION_KEYS);
+    }
+    
+    @Test
+    void mathKeysBind() {
+        assertBound("math", MATH_KEYS);
+    }
+    
+    @Test
+    void dateAliasesBindToTime() {
+        assertEquals(manager.getProvider("time"), manager.getBoundProvider(PlaceholderReference.of("date_formatted")));
+        assertEquals(manager.getProvider("time"), manager.getBoundProvider(PlaceholderReference.of("datetime_iso")));
+    }
+    
+    @Test
+    void unknownKeysStayUnknown() {
+        assertNull(manager.getBoundProvider(PlaceholderReference.of("no_such_placeholder")));
+    }
+    
+    /**
+     * Check that each key binds to some provider when written as is, and to the
+     * given provider when written with its category, with an argument the
+     * provider declares.
+     */
+    private void assertBound(String identifier, String[] keys) {
+        PlaceholderProvider expected = manager.getProvider(identifier);
+        List<String> unbound = new ArrayList<>();
+        
+        for (String key : keys) {
+            PlaceholderReference reference = PlaceholderReference.of(key);
+            if (manager.getBoundProvider(reference) == null || !isDeclared(reference)) {
+                unbound.add("%" + key + "%");
+            }
+            
+            String categoryKey = key.startsWith(identifier + "_") ? key : identifier + "_" + key;
+            PlaceholderReference categoryReference = PlaceholderReference.of(categoryKey);
+            if (manager.getBoundProvider(categoryReference) != expected || !isDeclared(categoryReference)) {
+                unbound.add("%" + categoryKey + "%");
+            }
+        }
+        
+        assertTrue(unbound.isEmpty(), "Not bound to " + identifier + ": " + unbound);
+    }
+    
+    /**
+     * Check if a bound reference's argument is one its provider declares.
+     * Specs that are only a variable, like <expression>, accept any argument.
+     */
+    private static boolean isDeclared(PlaceholderReference reference) {
+        PlaceholderReference.Binding binding = reference.getBinding();
+        String argument = binding.argument.toLowerCase();
+        for (String placeholder : binding.provider.getPlaceholders()) {
+            String spec = placeholder.toLowerCase();
+            int variable = spec.indexOf('<');
+            if (variable < 0 ? spec.equals(argument) : argument.startsWith(spec.substring(0, variable))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}